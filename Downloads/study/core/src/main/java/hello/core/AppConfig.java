@@ -26,18 +26,24 @@ public class AppConfig { // ->  팩토리 메소드로 스프링 빈(팩토리 
     @Bean // 스프링 컨테이너에 등록 : Bean이 메서드 이름으로 등록됨
     public MemberService memberService() {
         System.out.println("call AppConfig.memberService");
+//        return new MemberServiceImpl(memberRepository(), new MemberIdAllocator(Paths.get("data", "member-id.hwm"))); // 재시작해도 겹치지 않는 id 발급
         return new MemberServiceImpl(memberRepository());
     }
 
     @Bean
     public MemberRepository memberRepository() {
         System.out.println("call AppConfig.memberRepository");
+//        return new ConcurrentMemberRepository(); // 멀티스레드 환경에서 동시 join / findMember 가 필요할 때
+//        return new CachingMemberRepository(new FileMemberRepository(Paths.get("data")), 64 * 1024 * 1024); // 느린 저장소 앞에 캐시
+//        return new WriteBehindMemberRepository(new FileMemberRepository(Paths.get("data"))); // join 응답에서 디스크 I/O 제외 (종료 시 대기열 저장)
+//        return new VersionedMemberRepository(); // 리포트(snapshot 순회)와 join 이 동시에 돌 때
         return new MemoryMemberRepository();
     }
 
     @Bean
     public OrderService orderService() {
         System.out.println("call AppConfig.orderService");
+//        return new OrderServiceImpl(memberRepository(), discountPolicy(), new JournalOrderRepository(Paths.get("data"))); // 주문 기록 남기기
         return new OrderServiceImpl(memberRepository(), discountPolicy());
        // return null;
     }
@@ -45,6 +51,9 @@ public class AppConfig { // ->  팩토리 메소드로 스프링 빈(팩토리 
     @Bean
     public DiscountPolicy discountPolicy() {
 //        return new FixDisocuntPolicy();
+//        return RuleDiscountPolicy.loadResource("discount-rules.txt"); // 규칙 파일로 할인 (프로모션마다 빈을 새로 만들지 않는다)
+//        return SwitchableDiscountPolicy.watch(Paths.get("discount-rules.txt")); // 파일을 고치면 재시작 없이 교체
+//        return CompositeDiscountPolicy.sumWithCap(30, new RateDiscountPolicy(), RuleDiscountPolicy.loadResource("discount-rules.txt")); // 여러 할인을 합쳐서 (상한 30%)
         return new RateDiscountPolicy();
     }
 
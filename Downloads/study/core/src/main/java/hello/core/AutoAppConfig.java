@@ -17,5 +17,11 @@ public class AutoAppConfig {
 //    @Bean(name = "memoryMemberRepository")
 //    MemberRepository memberRepository() {
 //        return new MemoryMemberRepository();
+//    }
+
+    // 동시성 저장소로 바꾸고 싶으면 수동 빈으로 등록해서 자동 등록된 memoryMemberRepository를 덮어쓴다
+//    @Bean(name = "memoryMemberRepository")
+//    MemberRepository memberRepository() {
+//        return new ConcurrentMemberRepository();
 //    }
 }
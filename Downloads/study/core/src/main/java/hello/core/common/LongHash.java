@@ -0,0 +1,29 @@
+package hello.core.common;
+
+/**
+ * long 키(회원 id 등) 해시
+ * 연속된 id가 같은 구역에 몰리지 않도록 황금비 상수를 곱해서 비트를 섞는다 (fibonacci hashing)
+ * 오픈 어드레싱 테이블, 세그먼트 선택이 모두 같은 섞기를 쓴다.
+ */
+public final class LongHash {
+
+    private static final long GOLDEN_RATIO = 0x9E3779B97F4A7C15L;
+
+    private LongHash() {
+    }
+
+    /**
+     * @return 섞은 64비트 값, 상위 비트가 가장 잘 섞여 있다 (상위 몇 비트로 세그먼트를 고를 때)
+     */
+    public static long mix(long key) {
+        return key * GOLDEN_RATIO;
+    }
+
+    /**
+     * @return 테이블 인덱스용 32비트 해시, hash(key) & (테이블 크기 - 1) 로 쓴다
+     */
+    public static int hash(long key) {
+        long h = mix(key);
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,234 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 여러 할인(등급 할인, 쿠폰, 캠페인 등)을 묶어서 하나의 DiscountPolicy 로 쓰는 정책
+ * OrderServiceImpl 은 정책을 하나만 받으므로 이 객체를 넣으면 된다.
+ *
+ * 합치는 방법(Mode)
+ * - MAX          : 가장 큰 할인 하나
+ * - SUM_WITH_CAP : 모두 더하되 가격의 capPercent% 까지만
+ * - FIRST_MATCH  : 순서대로 보다가 처음으로 0원보다 큰 할인
+ *
+ * 만들 때 등급별로 할인할 수 있는 정책(canDiscount)만 골라 Grade.ordinal() 로 찾는 표에 넣어둔다
+ * -> 해당 등급에 줄 할인이 없는 정책은 호출하지 않는다.
+ * 결과가 더 커질 수 없으면(MAX 는 가격 전체, SUM_WITH_CAP 은 상한 도달, FIRST_MATCH 는 찾음) 나머지 정책은 건너뛴다.
+ *
+ * 정책마다 호출 횟수와 걸린 시간(ns)을 모은다 (stats), 느린 규칙을 찾을 때 본다.
+ * 호출 횟수는 항상 세고, 시간은 정책마다 timingSampleInterval 번에 한 번만 잰다 (기본 64)
+ * -> 잴 때마다 System.nanoTime 두 번이 들어가므로 가격 계산 경로가 느려지지 않게 표본만 잰다.
+ *    setTimingSampleInterval(1) 이면 매번, 0 이면 재지 않는다.
+ * 할인 금액은 항상 0 ~ 가격 사이다.
+ */
+public class CompositeDiscountPolicy implements DiscountPolicy {
+
+    public enum Mode {
+        MAX, SUM_WITH_CAP, FIRST_MATCH
+    }
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final int NO_GRADE = GRADES.length; // 등급 없는 회원용 칸
+
+    private final Mode mode;
+    private final int capPercent;
+    private final DiscountPolicy[] policies;
+    private final PolicyStats[] stats;
+    private final int[][] candidates; // 등급 ordinal (등급 없음은 NO_GRADE) -> 호출할 정책 번호들
+    private static final int DEFAULT_TIMING_SAMPLE_INTERVAL = 64;
+
+    private volatile int timingSampleInterval = DEFAULT_TIMING_SAMPLE_INTERVAL;
+
+    private CompositeDiscountPolicy(Mode mode, int capPercent, List<DiscountPolicy> policies) {
+        if (policies.isEmpty()) {
+            throw new IllegalArgumentException("묶을 할인 정책이 없습니다");
+        }
+        if (capPercent < 0 || capPercent > 100) {
+            throw new IllegalArgumentException("capPercent 는 0 ~ 100 입니다: " + capPercent);
+        }
+        this.mode = mode;
+        this.capPercent = capPercent;
+        this.policies = policies.toArray(new DiscountPolicy[0]);
+        this.stats = new PolicyStats[this.policies.length];
+        for (int i = 0; i < this.policies.length; i++) {
+            stats[i] = new PolicyStats(i + ":" + this.policies[i].getClass().getSimpleName());
+        }
+        this.candidates = new int[GRADES.length + 1][];
+        for (Grade grade : GRADES) {
+            candidates[grade.ordinal()] = candidatesFor(grade);
+        }
+        candidates[NO_GRADE] = candidatesFor(null);
+    }
+
+    public static CompositeDiscountPolicy max(DiscountPolicy... policies) {
+        return new CompositeDiscountPolicy(Mode.MAX, 100, List.of(policies));
+    }
+
+    /**
+     * @param capPercent 할인 합계 상한 (가격의 %)
+     */
+    public static CompositeDiscountPolicy sumWithCap(int capPercent, DiscountPolicy... policies) {
+        return new CompositeDiscountPolicy(Mode.SUM_WITH_CAP, capPercent, List.of(policies));
+    }
+
+    /**
+     * 앞에 둔 정책이 우선이다
+     */
+    public static CompositeDiscountPolicy firstMatch(DiscountPolicy... policies) {
+        return new CompositeDiscountPolicy(Mode.FIRST_MATCH, 100, List.of(policies));
+    }
+
+    private int[] candidatesFor(Grade grade) {
+        int[] indexes = new int[policies.length];
+        int size = 0;
+        for (int i = 0; i < policies.length; i++) {
+            if (policies[i].canDiscount(grade)) {
+                indexes[size++] = i;
+            }
+        }
+        int[] result = new int[size];
+        System.arraycopy(indexes, 0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        Grade grade = member.getGrade();
+        int[] indexes = candidates[grade == null ? NO_GRADE : grade.ordinal()];
+        int limit = Math.max(price, 0);
+        if (mode == Mode.SUM_WITH_CAP) {
+            limit = (int) ((long) limit * capPercent / 100);
+        }
+        long result = 0; // SUM_WITH_CAP 합계가 int 를 넘지 않게
+        for (int index : indexes) {
+            int discount = evaluate(index, member, price);
+            if (mode == Mode.MAX) {
+                result = Math.max(result, discount);
+            } else if (mode == Mode.SUM_WITH_CAP) {
+                result += Math.max(discount, 0);
+            } else if (discount > 0) { // FIRST_MATCH
+                result = discount;
+                break;
+            }
+            if (result >= limit) {
+                break; // 더 커질 수 없다
+            }
+        }
+        return (int) Math.max(Math.min(result, limit), 0);
+    }
+
+    @Override
+    public boolean canDiscount(Grade grade) {
+        return candidates[grade == null ? NO_GRADE : grade.ordinal()].length > 0;
+    }
+
+    private int evaluate(int index, Member member, int price) {
+        PolicyStats policyStats = stats[index];
+        policyStats.evaluations.increment();
+        if (!policyStats.shouldSample(timingSampleInterval)) {
+            return policies[index].discount(member, price);
+        }
+        long start = System.nanoTime();
+        try {
+            return policies[index].discount(member, price);
+        } finally {
+            policyStats.sampledNanos.add(System.nanoTime() - start);
+            policyStats.samples.increment();
+        }
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    /**
+     * @param interval 정책마다 몇 번에 한 번 시간을 잴지, 1 이면 매번, 0 이면 재지 않는다
+     */
+    public void setTimingSampleInterval(int interval) {
+        if (interval < 0) {
+            throw new IllegalArgumentException("interval 은 0 이상입니다: " + interval);
+        }
+        this.timingSampleInterval = interval;
+    }
+
+    /**
+     * @return 묶은 순서대로 정책별 통계
+     */
+    public List<PolicyStats> stats() {
+        List<PolicyStats> result = new ArrayList<>(stats.length);
+        Collections.addAll(result, stats);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * 정책 하나의 호출 횟수 / 시간을 잰 호출의 횟수와 걸린 시간 합계, 여러 스레드가 같이 더한다 (LongAdder)
+     */
+    public static final class PolicyStats {
+
+        private final String name;
+        private final LongAdder evaluations = new LongAdder();
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder sampledNanos = new LongAdder();
+        private int untilSample; // 여러 스레드가 락 없이 줄이므로 정확히 interval 번마다는 아니다 (표본용이라 충분)
+
+        private PolicyStats(String name) {
+            this.name = name;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        public long evaluations() {
+            return evaluations.sum();
+        }
+
+        /**
+         * @return 시간을 잰 호출 수
+         */
+        public long samples() {
+            return samples.sum();
+        }
+
+        /**
+         * @return 시간을 잰 호출들의 걸린 시간 합계
+         */
+        public long sampledNanos() {
+            return sampledNanos.sum();
+        }
+
+        /**
+         * @return 시간을 잰 호출의 평균 (ns), 잰 적이 없으면 0
+         */
+        public double averageNanos() {
+            long count = samples();
+            return count == 0 ? 0 : (double) sampledNanos() / count;
+        }
+
+        public void reset() {
+            evaluations.reset();
+            samples.reset();
+            sampledNanos.reset();
+        }
+
+        private boolean shouldSample(int interval) {
+            if (interval == 0 || --untilSample > 0) {
+                return false;
+            }
+            untilSample = interval;
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{evaluations=" + evaluations() + ", samples=" + samples()
+                    + ", averageNanos=" + Math.round(averageNanos()) + '}';
+        }
+    }
+}
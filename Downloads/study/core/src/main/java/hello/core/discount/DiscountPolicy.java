@@ -1,5 +1,6 @@
 package hello.core.discount;
 
+import hello.core.member.Grade;
 import hello.core.member.Member;
 
 public interface DiscountPolicy {
@@ -9,4 +10,45 @@ public interface DiscountPolicy {
      * @return 할인 대상 금액
      */
     int discount(Member member, int price);
+
+    /**
+     * @return 이 등급(null 이면 등급 없음) 회원에게 0원보다 큰 할인을 줄 수 있으면 true
+     * 여러 정책을 묶을 때(CompositeDiscountPolicy) 할인할 수 없는 정책을 아예 호출하지 않으려고 쓴다.
+     * 기본값은 모르면 true (항상 호출)
+     */
+    default boolean canDiscount(Grade grade) {
+        return true;
+    }
+
+    /**
+     * 여러 줄의 할인을 한 번에 계산한다, out[i] = gradeOrdinals[i] 등급 회원이 prices[i] 를 살 때의 할인 금액
+     * 등급은 Grade.ordinal(), 등급 없음은 -1 (CompactMember 와 같은 표현), 그 밖에 범위를 벗어난 값도 등급 없음으로 본다
+     *
+     * 기본 구현은 등급마다 Member 하나를 만들어두고 discount 를 반복 호출한다 (등급과 가격만 보는 정책이라는 가정)
+     * 구현체는 Member 없이 배열만 훑는 반복문으로 오버라이드한다.
+     */
+    default void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        int size = checkBatch(gradeOrdinals, prices, out);
+        Grade[] grades = Grade.values();
+        Member[] members = new Member[grades.length];
+        for (Grade grade : grades) {
+            members[grade.ordinal()] = new Member(null, null, grade);
+        }
+        Member noGrade = new Member(null, null, null);
+        for (int i = 0; i < size; i++) {
+            int grade = gradeOrdinals[i];
+            out[i] = discount(grade >= 0 && grade < members.length ? members[grade] : noGrade, prices[i]);
+        }
+    }
+
+    /**
+     * @return 계산할 줄 수
+     */
+    static int checkBatch(byte[] gradeOrdinals, int[] prices, int[] out) {
+        if (gradeOrdinals.length != prices.length || out.length < prices.length) {
+            throw new IllegalArgumentException("배열 길이가 맞지 않습니다: grades=" + gradeOrdinals.length
+                    + ", prices=" + prices.length + ", out=" + out.length);
+        }
+        return prices.length;
+    }
 }
@@ -0,0 +1,108 @@
+package hello.core.discount;
+
+import hello.core.member.Member;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 여러 할인 정책 중 하나를 골라 할인하는 라우터 (AllBeanTest.DiscountService 의 Map<String, DiscountPolicy> 방식 대체)
+ *
+ * 시작할 때 모든 DiscountPolicy 빈에 0부터 빈 이름 순으로 번호(Code)를 매기고 배열에 담아둔다.
+ * 호출하는 쪽은 code("fixDiscountPolicy") 로 Code 를 한 번 받아두고 주문마다 그 Code 로 호출한다
+ * -> 주문마다 문자열 해시 / 맵 조회 없이 배열 인덱스 한 번으로 정책을 찾는다.
+ */
+@Component
+public class DiscountRouter {
+
+    private final DiscountPolicy[] policies;
+    private final List<Code> codes;
+
+    @Autowired
+    public DiscountRouter(Map<String, DiscountPolicy> policies) {
+        if (policies.isEmpty()) {
+            throw new IllegalArgumentException("할인 정책이 하나도 없습니다");
+        }
+        Map<String, DiscountPolicy> sorted = new TreeMap<>(policies); // 빈 등록 순서와 상관없이 같은 번호
+        this.policies = new DiscountPolicy[sorted.size()];
+        List<Code> codes = new ArrayList<>(sorted.size());
+        for (Map.Entry<String, DiscountPolicy> entry : sorted.entrySet()) {
+            int index = codes.size();
+            this.policies[index] = entry.getValue();
+            codes.add(new Code(this, index, entry.getKey()));
+        }
+        this.codes = Collections.unmodifiableList(codes);
+    }
+
+    /**
+     * 시작할 때(또는 요청을 받을 때) 한 번만 호출해서 Code 를 받아둔다
+     */
+    public Code code(String policyName) {
+        for (Code code : codes) {
+            if (code.name.equals(policyName)) {
+                return code;
+            }
+        }
+        throw new IllegalArgumentException("없는 할인 정책입니다: " + policyName + " (가능: " + codes + ")");
+    }
+
+    public int discount(Code code, Member member, int price) {
+        return policies[indexOf(code)].discount(member, price);
+    }
+
+    public void discountAll(Code code, byte[] gradeOrdinals, int[] prices, int[] out) {
+        policies[indexOf(code)].discountAll(gradeOrdinals, prices, out);
+    }
+
+    public DiscountPolicy policy(Code code) {
+        return policies[indexOf(code)];
+    }
+
+    /**
+     * @return 번호 순서의 모든 Code
+     */
+    public List<Code> codes() {
+        return codes;
+    }
+
+    private int indexOf(Code code) {
+        if (code.router != this) {
+            throw new IllegalArgumentException("다른 DiscountRouter 의 Code 입니다: " + code);
+        }
+        return code.index;
+    }
+
+    /**
+     * 할인 정책 번호, 같은 라우터 안에서는 0 ~ (정책 수 - 1) 로 빽빽하게 매겨진다
+     */
+    public static final class Code {
+
+        private final DiscountRouter router;
+        private final int index;
+        private final String name;
+
+        private Code(DiscountRouter router, int index, String name) {
+            this.router = router;
+            this.index = index;
+            this.name = name;
+        }
+
+        public int index() {
+            return index;
+        }
+
+        public String name() {
+            return name;
+        }
+
+        @Override
+        public String toString() {
+            return name + "#" + index;
+        }
+    }
+}
@@ -18,4 +18,21 @@ public class FixDiscountPolicy implements DiscountPolicy{
             return 0;
         }
     }
+
+    @Override
+    public boolean canDiscount(Grade grade) {
+        return grade == Grade.VIP && discountFixAmount > 0;
+    }
+
+    // 배열만 순서대로 훑는다 (Member 역참조, 가상 호출 없음)
+    // 조건 연산자는 분기 대신 cmov 로 컴파일되어 VIP/일반이 섞여 있어도 분기 예측 실패가 없다
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        int size = DiscountPolicy.checkBatch(gradeOrdinals, prices, out);
+        int vip = Grade.VIP.ordinal();
+        int amount = discountFixAmount;
+        for (int i = 0; i < size; i++) {
+            out[i] = gradeOrdinals[i] == vip ? amount : 0;
+        }
+    }
 }
@@ -8,7 +8,20 @@ import org.springframework.stereotype.Component;
 @Component
 public class RateDiscountPolicy implements DiscountPolicy{
 
-    private int discountPercent = 10;
+    private final int discountPercent;
+
+    public RateDiscountPolicy() {
+        this(10);
+    }
+
+    // 할인율만 바꾼 정책 (SwitchableDiscountPolicy.swap 으로 실행 중에 교체할 때)
+    public RateDiscountPolicy(int discountPercent) {
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException("할인율은 0 ~ 100 입니다: " + discountPercent);
+        }
+        this.discountPercent = discountPercent;
+    }
+
     @Override
     public int discount(Member member, int price) {
 
@@ -18,4 +31,23 @@ public class RateDiscountPolicy implements DiscountPolicy{
             return 0;
         }
     }
+
+    @Override
+    public boolean canDiscount(Grade grade) {
+        return grade == Grade.VIP && discountPercent > 0;
+    }
+
+    // 배열만 순서대로 훑는다 (Member 역참조, 가상 호출 없음)
+    // 할인액은 등급과 상관없이 먼저 계산하고 조건 연산자(cmov)로 고른다 -> 분기 예측 실패가 없다
+    // 상수 100 나누기는 곱셈 + 시프트로 바뀐다
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        int size = DiscountPolicy.checkBatch(gradeOrdinals, prices, out);
+        int vip = Grade.VIP.ordinal();
+        int percent = discountPercent;
+        for (int i = 0; i < size; i++) {
+            int discount = prices[i] * percent / 100;
+            out[i] = gradeOrdinals[i] == vip ? discount : 0;
+        }
+    }
 }
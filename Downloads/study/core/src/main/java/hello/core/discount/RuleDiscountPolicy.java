@@ -0,0 +1,251 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 설정 파일의 규칙으로 할인하는 정책, 프로모션이 바뀌어도 새 DiscountPolicy 빈을 만들 필요가 없다
+ *
+ * 규칙 파일 한 줄 = 규칙 하나 (# 뒤는 주석)
+ * <pre>
+ * # 등급   최소금액   종류   값
+ * VIP     0         RATE   10      # VIP 10%
+ * VIP     100000    RATE   15      # VIP 10만원 이상 15%
+ * BASIC   50000     FIX    1000    # 일반 5만원 이상 1000원
+ * *       1000000   FIX    20000   # * 는 모든 등급
+ * </pre>
+ * 등급마다 "최소금액 <= 가격" 인 규칙 중 최소금액이 가장 큰 규칙 하나만 적용한다 (구간 할인), 없으면 0원.
+ * 할인 금액은 가격을 넘지 않는다.
+ *
+ * 읽을 때 규칙을 Grade.ordinal() 로 바로 찾는 표로 바꿔둔다 (등급별로 최소금액 오름차순 배열 + 구간별 할인율/금액).
+ * discount 호출에는 맵 조회도, 규칙 해석도 없다.
+ */
+public class RuleDiscountPolicy implements DiscountPolicy {
+
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Tiers[] table; // Grade.ordinal() -> 해당 등급의 구간들
+    private final int ruleCount;
+
+    private RuleDiscountPolicy(Tiers[] table, int ruleCount) {
+        this.table = table;
+        this.ruleCount = ruleCount;
+    }
+
+    public static RuleDiscountPolicy load(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("할인 규칙 파일 읽기 실패: " + file, e);
+        }
+    }
+
+    public static RuleDiscountPolicy loadResource(String resource) {
+        InputStream in = RuleDiscountPolicy.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("할인 규칙 파일이 없습니다: " + resource);
+        }
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return parse(reader);
+        } catch (IOException e) {
+            throw new UncheckedIOException("할인 규칙 파일 읽기 실패: " + resource, e);
+        }
+    }
+
+    public static RuleDiscountPolicy parse(Reader reader) throws IOException {
+        BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        List<Rule> rules = new ArrayList<>();
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            String text = (comment >= 0 ? line.substring(0, comment) : line).trim();
+            if (!text.isEmpty()) {
+                rules.add(Rule.parse(text, lineNumber));
+            }
+        }
+        return compile(rules);
+    }
+
+    // 등급별로 규칙을 모아 최소금액 순으로 정렬하고, 구간마다 (할인율, 고정금액) 으로 펼쳐둔다
+    // 맨 앞에 "할인 없음" 구간을 넣고, 모든 등급의 구간 수를 똑같이 2의 거듭제곱으로 맞춘다 (뒤쪽은 마지막 구간 복사)
+    // -> discount 의 이진 탐색은 등급이 섞여 들어와도 반복 횟수가 같고, "해당 구간 없음" 분기도 없다
+    private static RuleDiscountPolicy compile(List<Rule> rules) {
+        List<List<Rule>> byGrade = new ArrayList<>();
+        int width = 1;
+        for (Grade grade : GRADES) {
+            List<Rule> gradeRules = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.grade == null || rule.grade == grade) {
+                    gradeRules.add(rule);
+                }
+            }
+            gradeRules.sort((a, b) -> Integer.compare(a.minPrice, b.minPrice));
+            for (int i = 1; i < gradeRules.size(); i++) {
+                Rule rule = gradeRules.get(i);
+                if (gradeRules.get(i - 1).minPrice == rule.minPrice) {
+                    throw new IllegalArgumentException(
+                            rule.lineNumber + "번째 줄: " + grade + " 등급에 최소금액 " + rule.minPrice + " 규칙이 이미 있습니다");
+                }
+            }
+            byGrade.add(gradeRules);
+            width = Math.max(width, gradeRules.size() + 1);
+        }
+        width = width == 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+
+        Tiers[] table = new Tiers[GRADES.length];
+        for (Grade grade : GRADES) {
+            List<Rule> gradeRules = byGrade.get(grade.ordinal());
+            int[] minPrices = new int[width];
+            int[] ratePercents = new int[width];
+            int[] fixedAmounts = new int[width];
+            minPrices[0] = Integer.MIN_VALUE; // 할인 없음
+            for (int i = 1; i < width; i++) {
+                if (i <= gradeRules.size()) {
+                    Rule rule = gradeRules.get(i - 1);
+                    minPrices[i] = rule.minPrice;
+                    ratePercents[i] = rule.rate ? rule.value : 0;
+                    fixedAmounts[i] = rule.rate ? 0 : rule.value;
+                } else { // 채우기용, 가격이 Integer.MAX_VALUE 여도 결과가 같다
+                    minPrices[i] = Integer.MAX_VALUE;
+                    ratePercents[i] = ratePercents[i - 1];
+                    fixedAmounts[i] = fixedAmounts[i - 1];
+                }
+            }
+            table[grade.ordinal()] = new Tiers(minPrices, ratePercents, fixedAmounts);
+        }
+        return new RuleDiscountPolicy(table, rules.size());
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        Grade grade = member.getGrade();
+        return grade == null ? 0 : table[grade.ordinal()].discount(price);
+    }
+
+    @Override
+    public boolean canDiscount(Grade grade) {
+        return grade != null && table[grade.ordinal()].canDiscount();
+    }
+
+    // 등급 ordinal 로 바로 표를 찾는다 (Member 없음), 범위 밖 ordinal 은 등급 없음 -> 0원
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        int size = DiscountPolicy.checkBatch(gradeOrdinals, prices, out);
+        for (int i = 0; i < size; i++) {
+            int grade = gradeOrdinals[i];
+            out[i] = grade >= 0 && grade < table.length ? table[grade].discount(prices[i]) : 0;
+        }
+    }
+
+    public int ruleCount() {
+        return ruleCount;
+    }
+
+    /**
+     * 한 등급의 구간들, i번째 구간 할인 = price * ratePercents[i] / 100 + fixedAmounts[i]
+     * 구간 수는 2의 거듭제곱 (compile 에서 맞춘다)
+     */
+    private static final class Tiers {
+
+        final int[] minPrices;
+        final int[] ratePercents;
+        final int[] fixedAmounts;
+
+        Tiers(int[] minPrices, int[] ratePercents, int[] fixedAmounts) {
+            this.minPrices = minPrices;
+            this.ratePercents = ratePercents;
+            this.fixedAmounts = fixedAmounts;
+        }
+
+        boolean canDiscount() {
+            for (int i = 0; i < minPrices.length; i++) {
+                if (ratePercents[i] > 0 || fixedAmounts[i] > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int discount(int price) {
+            // 오름차순이므로 "최소금액 <= 가격" 인 마지막 구간을 이진 탐색한다 (0번 구간은 항상 해당)
+            // 길이가 2의 거듭제곱이라 반복 횟수는 log2(구간 수)로 고정, 비교 결과는 분기 대신 선택으로 반영한다
+            int i = 0;
+            for (int half = minPrices.length >>> 1; half > 0; half >>>= 1) {
+                i = price >= minPrices[i + half] ? i + half : i;
+            }
+            long discount = (long) price * ratePercents[i] / 100 + fixedAmounts[i];
+            return (int) Math.min(discount, Math.max(price, 0));
+        }
+    }
+
+    private static final class Rule {
+
+        final Grade grade; // null 이면 모든 등급
+        final int minPrice;
+        final boolean rate;
+        final int value;
+        final int lineNumber;
+
+        private Rule(Grade grade, int minPrice, boolean rate, int value, int lineNumber) {
+            this.grade = grade;
+            this.minPrice = minPrice;
+            this.rate = rate;
+            this.value = value;
+            this.lineNumber = lineNumber;
+        }
+
+        static Rule parse(String text, int lineNumber) {
+            String[] fields = text.split("\\s+");
+            if (fields.length != 4) {
+                throw invalid(lineNumber, "'등급 최소금액 종류 값' 형식이어야 합니다: " + text);
+            }
+            Grade grade = fields[0].equals("*") ? null : parseGrade(fields[0], lineNumber);
+            int minPrice = parseInt(fields[1], lineNumber);
+            String type = fields[2].toUpperCase(Locale.ROOT);
+            if (!type.equals("RATE") && !type.equals("FIX")) {
+                throw invalid(lineNumber, "종류는 RATE 또는 FIX 입니다: " + fields[2]);
+            }
+            boolean rate = type.equals("RATE");
+            int value = parseInt(fields[3], lineNumber);
+            if (minPrice < 0 || value < 0 || (rate && value > 100)) {
+                throw invalid(lineNumber, "범위를 벗어난 값입니다: " + text);
+            }
+            return new Rule(grade, minPrice, rate, value, lineNumber);
+        }
+
+        private static Grade parseGrade(String text, int lineNumber) {
+            try {
+                return Grade.valueOf(text.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw invalid(lineNumber, "없는 등급입니다: " + text);
+            }
+        }
+
+        private static int parseInt(String text, int lineNumber) {
+            try {
+                return Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw invalid(lineNumber, "숫자가 아닙니다: " + text);
+            }
+        }
+
+        private static IllegalArgumentException invalid(int lineNumber, String message) {
+            return new IllegalArgumentException(lineNumber + "번째 줄: " + message);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실행 중에 교체할 수 있는 할인 정책, OrderServiceImpl 에는 이 객체를 DiscountPolicy 로 넣어둔다
+ *
+ * - discount 는 volatile 읽기 한 번 후 현재 정책에 위임한다 (락 없음)
+ * - swap : 운영자가 다른 정책(new RateDiscountPolicy(15) 등)으로 바로 교체 (관리용 API 에서 호출)
+ * - watch : 규칙 파일(RuleDiscountPolicy 형식)이 바뀌면 다시 읽어서 교체, reload() 로 직접 다시 읽을 수도 있다
+ *   잘못된 파일이면 기존 정책을 그대로 쓰고 lastReloadError() 에 남긴다
+ *
+ * 교체 직전에 시작한 discount 호출은 이전 정책으로 끝난다.
+ * 재시작하지 않으므로 JIT 로 최적화된 코드도 그대로 유지된다.
+ */
+public class SwitchableDiscountPolicy implements DiscountPolicy, Closeable {
+
+    private volatile DiscountPolicy current;
+
+    private final Path rulesFile; // null 이면 swap 으로만 교체
+    private final WatchService watchService;
+    private final Thread watcher;
+    private volatile RuntimeException lastReloadError;
+    private volatile long swapCount;
+
+    public SwitchableDiscountPolicy(DiscountPolicy initial) {
+        this.current = Objects.requireNonNull(initial, "initial");
+        this.rulesFile = null;
+        this.watchService = null;
+        this.watcher = null;
+    }
+
+    private SwitchableDiscountPolicy(Path rulesFile) {
+        this.rulesFile = rulesFile.toAbsolutePath();
+        this.current = RuleDiscountPolicy.load(this.rulesFile); // 처음 파일이 잘못됐으면 시작하지 않는다
+        try {
+            this.watchService = FileSystems.getDefault().newWatchService();
+            // 편집기는 보통 새 파일을 쓰고 이름을 바꾸므로 생성/수정 둘 다 본다
+            this.rulesFile.getParent().register(watchService,
+                    StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("할인 규칙 파일 감시 실패: " + rulesFile, e);
+        }
+        this.watcher = new Thread(this::watchLoop, "discount-policy-watcher");
+        this.watcher.setDaemon(true);
+        this.watcher.start();
+    }
+
+    /**
+     * 규칙 파일로 시작하고, 파일이 바뀔 때마다 다시 읽어서 교체한다
+     */
+    public static SwitchableDiscountPolicy watch(Path rulesFile) {
+        return new SwitchableDiscountPolicy(rulesFile);
+    }
+
+    @Override
+    public int discount(Member member, int price) {
+        return current.discount(member, price);
+    }
+
+    // 배치 전체를 같은 정책으로 계산한다 (중간에 교체되어도 섞이지 않는다)
+    @Override
+    public void discountAll(byte[] gradeOrdinals, int[] prices, int[] out) {
+        current.discountAll(gradeOrdinals, prices, out);
+    }
+
+    // 나중에 어떤 정책으로 바뀔지 모르므로 항상 true
+    @Override
+    public boolean canDiscount(Grade grade) {
+        return true;
+    }
+
+    public DiscountPolicy current() {
+        return current;
+    }
+
+    /**
+     * @return 교체되기 전 정책
+     */
+    public synchronized DiscountPolicy swap(DiscountPolicy next) {
+        Objects.requireNonNull(next, "next");
+        DiscountPolicy previous = current;
+        current = next;
+        swapCount++;
+        return previous;
+    }
+
+    /**
+     * 규칙 파일을 지금 다시 읽어서 교체한다, 파일이 잘못됐으면 예외를 던지고 기존 정책을 유지한다
+     */
+    public synchronized DiscountPolicy reload() {
+        if (rulesFile == null) {
+            throw new IllegalStateException("규칙 파일로 만든 정책이 아닙니다");
+        }
+        try {
+            RuleDiscountPolicy next = RuleDiscountPolicy.load(rulesFile);
+            lastReloadError = null;
+            return swap(next);
+        } catch (RuntimeException e) {
+            lastReloadError = e;
+            throw e;
+        }
+    }
+
+    public long swapCount() {
+        return swapCount;
+    }
+
+    /**
+     * @return 마지막 reload 가 실패했으면 그 예외, 성공했으면 null
+     */
+    public RuntimeException lastReloadError() {
+        return lastReloadError;
+    }
+
+    @PreDestroy
+    @Override
+    public void close() throws IOException {
+        if (watchService == null) {
+            return;
+        }
+        watchService.close(); // take() 에서 ClosedWatchServiceException 으로 빠져나온다
+        try {
+            watcher.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void watchLoop() {
+        Path fileName = rulesFile.getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= fileName.equals(event.context()) || event.kind() == StandardWatchEventKinds.OVERFLOW;
+                }
+                key.reset();
+                if (changed) {
+                    // 저장이 여러 번의 쓰기로 나뉘어 이벤트가 몰려오므로 잠깐 모았다가 한 번만 읽는다
+                    Thread.sleep(50);
+                    drainEvents();
+                    try {
+                        reload();
+                    } catch (RuntimeException e) {
+                        // lastReloadError 에 남기고 기존 정책 유지
+                    }
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // 종료
+        }
+    }
+
+    private void drainEvents() {
+        WatchKey key;
+        while ((key = watchService.poll()) != null) {
+            key.pollEvents();
+            key.reset();
+        }
+    }
+}
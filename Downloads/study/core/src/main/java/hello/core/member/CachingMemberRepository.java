@@ -0,0 +1,296 @@
+package hello.core.member;
+
+import hello.core.common.LongHash;
+
+import javax.annotation.PreDestroy;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 느린 저장소(파일, 원격 등) 앞에 두는 읽기 캐시
+ *
+ * - 메모리 한도 : 회원별 대략적인 바이트 크기와 빈도 sketch 크기를 더해서 maxWeightBytes를 넘지 않게 한다
+ * - 교체 정책 : 세그먼트마다 LRU 순서를 유지하되, 자리가 없을 때는 새 회원의 최근 조회 빈도가
+ *   쫓겨날 회원(LRU 맨 앞)보다 높을 때만 넣는다 (TinyLFU 방식 입장 제한)
+ *   -> 한 번 조회되고 마는 회원이 자주 조회되는 VIP 회원을 밀어내지 못한다
+ * - save 하면 해당 id를 캐시에서 지운다
+ * - 캐시에 든 회원은 밖에서 바꿀 수 없도록 넣을 때와 돌려줄 때 모두 복사본을 쓴다
+ *
+ * id 해시로 세그먼트를 나눠서 세그먼트별로 락을 잡는다.
+ * close 하면 감싼 저장소도 닫는다 (파일 저장소 등 AutoCloseable 인 경우)
+ */
+public class CachingMemberRepository implements MemberRepository, SnapshotCapable, AutoCloseable {
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private final MemberRepository delegate;
+    private final Segment[] segments = new Segment[SEGMENT_COUNT];
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder rejectionCount = new LongAdder();
+
+    public CachingMemberRepository(MemberRepository delegate, long maxWeightBytes) {
+        this.delegate = delegate;
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            segments[i] = new Segment(Math.max(maxWeightBytes / SEGMENT_COUNT, 1));
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        delegate.save(member);
+        segmentFor(member.getId()).invalidate(member.getId());
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        delegate.saveAll(members);
+        for (Member member : members) {
+            segmentFor(member.getId()).invalidate(member.getId());
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        Segment segment = segmentFor(memberId);
+        Long key = memberId;
+        long version;
+        synchronized (segment) {
+            segment.sketch.increment(memberId);
+            Member cached = segment.entries.get(key);
+            if (cached != null) {
+                hitCount.increment();
+                return copy(cached);
+            }
+            version = segment.version;
+        }
+
+        missCount.increment();
+        Member member = delegate.findById(memberId);
+        if (member != null) {
+            segment.admit(key, copy(member), version);
+        }
+        return member;
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        return delegate.maxId();
+    }
+
+    @Override
+    public MemberSnapshot snapshot() {
+        return SnapshotCapable.snapshotOf(delegate);
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return SnapshotCapable.supports(delegate);
+    }
+
+    /**
+     * 감싼 저장소가 AutoCloseable 이면 닫는다
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (!(delegate instanceof AutoCloseable)) {
+            return;
+        }
+        try {
+            ((AutoCloseable) delegate).close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("감싼 저장소 종료 실패", e);
+        }
+    }
+
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 빈도가 낮아 캐시에 넣지 않은 횟수
+     */
+    public long rejectionCount() {
+        return rejectionCount.sum();
+    }
+
+    public double hitRate() {
+        long hits = hitCount();
+        long total = hits + missCount();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * @return 캐시된 회원과 빈도 sketch 가 차지하는 대략적인 바이트 수
+     */
+    public long weightBytes() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                weight += segment.weight + segment.sketch.bytes();
+            }
+        }
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "CachingMemberRepository{" +
+                "hit=" + hitCount() +
+                ", miss=" + missCount() +
+                ", eviction=" + evictionCount() +
+                ", rejection=" + rejectionCount() +
+                ", weightBytes=" + weightBytes() +
+                '}';
+    }
+
+    private static Member copy(Member member) {
+        return new Member(member.getId(), member.getName(), member.getGrade());
+    }
+
+    private Segment segmentFor(long memberId) {
+        return segments[(int) (LongHash.mix(memberId) >>> 60) & (SEGMENT_COUNT - 1)];
+    }
+
+    /**
+     * 회원 한 명이 캐시에서 차지하는 대략적인 크기 (compressed oops 기준)
+     * LinkedHashMap 엔트리(40) + Long 키(16) + Member(32) + 이름 String(24 + 배열 16 + 글자수)
+     */
+    static long weigh(Member member) {
+        String name = member.getName();
+        return 40 + 16 + 32 + (name == null ? 0 : 24 + 16 + name.length() * 2L);
+    }
+
+    private class Segment {
+
+        private final long maxWeight;
+        private final LinkedHashMap<Long, Member> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final FrequencySketch sketch;
+        private long weight;
+        private long version; // invalidate 될 때마다 증가, 조회 도중 save 된 값이 캐시에 들어가지 않게 한다
+
+        // sketch 도 한도 안에 넣는다 : 한도에서 sketch 크기를 뺀 만큼만 회원을 담는다
+        Segment(long maxBytes) {
+            this.sketch = new FrequencySketch((int) Math.min(Math.max(maxBytes / 128, 1), 1 << 24));
+            this.maxWeight = Math.max(maxBytes - sketch.bytes(), 0);
+        }
+
+        synchronized void invalidate(long memberId) {
+            version++;
+            Member removed = entries.remove(memberId);
+            if (removed != null) {
+                weight -= weigh(removed);
+            }
+        }
+
+        synchronized void admit(Long key, Member member, long loadedVersion) {
+            if (loadedVersion != version || entries.containsKey(key)) {
+                return;
+            }
+            long memberWeight = weigh(member);
+            if (memberWeight > maxWeight) {
+                rejectionCount.increment();
+                return;
+            }
+
+            // 자리가 없으면 LRU 맨 앞(희생자)과 빈도를 비교해서, 새 회원이 더 자주 조회될 때만 밀어낸다
+            if (weight + memberWeight > maxWeight) {
+                Long victimKey = entries.keySet().iterator().next();
+                if (sketch.frequency(key) <= sketch.frequency(victimKey)) {
+                    rejectionCount.increment();
+                    return;
+                }
+                Iterator<Map.Entry<Long, Member>> iterator = entries.entrySet().iterator();
+                while (weight + memberWeight > maxWeight) {
+                    Map.Entry<Long, Member> victim = iterator.next();
+                    iterator.remove();
+                    weight -= weigh(victim.getValue());
+                    evictionCount.increment();
+                }
+            }
+            entries.put(key, member);
+            weight += memberWeight;
+        }
+    }
+
+    /**
+     * 최근 조회 빈도를 근사하는 count-min sketch (4개 해시, 카운터 최대 15)
+     * 카운터는 4비트라 long 하나에 16개씩 담는다 (회원 한 명 예상당 카운터 4개 = 2바이트)
+     * 일정 횟수마다 모든 카운터를 절반으로 줄여서 오래된 인기는 점점 잊는다.
+     */
+    private static class FrequencySketch {
+
+        private static final int MAX_COUNT = 15;
+        private static final long HALF_MASK = 0x7777_7777_7777_7777L; // 절반으로 줄일 때 옆 카운터에서 넘어온 비트 제거
+        private static final long[] SEEDS = {
+                0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L};
+
+        private final long[] table;
+        private final int mask; // 카운터 번호 mask
+        private final int resetThreshold;
+        private int additions;
+
+        FrequencySketch(int expectedEntries) {
+            int size = Math.max(Integer.highestOneBit(expectedEntries * 4 - 1) << 1, 16);
+            table = new long[size / 16];
+            mask = size - 1;
+            resetThreshold = expectedEntries * 10;
+        }
+
+        long bytes() {
+            return 16 + table.length * 8L; // 배열 헤더 + 본문
+        }
+
+        void increment(long key) {
+            for (long seed : SEEDS) {
+                int index = index(key, seed);
+                int shift = (index & 15) << 2;
+                if (((table[index >>> 4] >>> shift) & MAX_COUNT) < MAX_COUNT) {
+                    table[index >>> 4] += 1L << shift;
+                }
+            }
+            if (++additions >= resetThreshold) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & HALF_MASK;
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(long key) {
+            int frequency = MAX_COUNT;
+            for (long seed : SEEDS) {
+                int index = index(key, seed);
+                frequency = Math.min(frequency, (int) (table[index >>> 4] >>> ((index & 15) << 2)) & MAX_COUNT);
+            }
+            return frequency;
+        }
+
+        private int index(long key, long seed) {
+            long h = (key + seed) * seed;
+            return (int) (h ^ (h >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package hello.core.member;
+
+import java.util.Objects;
+
+/**
+ * 저장용 불변 회원 (Member와 함께 쓰는 압축 표현)
+ *
+ * - id는 long 그대로 (Long 박싱 객체 없음)
+ * - 등급은 ordinal 1byte
+ * - 이름은 NamePool 로 중복 제거해서 같은 이름의 회원끼리 String 하나를 같이 쓴다
+ * 64bit JVM(compressed oops) 기준 객체 하나가 32byte, 이름은 종류별로 한 번만 든다.
+ *
+ * 불변이라 여러 스레드가 방어적 복사 없이 같은 인스턴스를 그대로 공유해도 된다.
+ */
+public final class CompactMember {
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final byte NULL_GRADE = -1;
+
+    private final long id;
+    private final String name;
+    private final byte grade;
+
+    public CompactMember(long id, String name, Grade grade) {
+        this(id, name, grade, NamePool.shared());
+    }
+
+    public CompactMember(long id, String name, Grade grade, NamePool namePool) {
+        this.id = id;
+        this.name = namePool.intern(name);
+        this.grade = grade == null ? NULL_GRADE : (byte) grade.ordinal();
+    }
+
+    public static CompactMember from(Member member) {
+        return new CompactMember(member.getId(), member.getName(), member.getGrade());
+    }
+
+    /**
+     * @return 수정 가능한 Member 복사본 (기존 Member API 호환용)
+     */
+    public Member toMember() {
+        return new Member(id, name, getGrade());
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Grade getGrade() {
+        return grade == NULL_GRADE ? null : GRADES[grade];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof CompactMember)) {
+            return false;
+        }
+        CompactMember that = (CompactMember) o;
+        return id == that.id && grade == that.grade && Objects.equals(name, that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, grade);
+    }
+
+    @Override
+    public String toString() {
+        return "CompactMember{" +
+                "id=" + id +
+                ", name='" + name + '\'' +
+                ", grade=" + getGrade() +
+                '}';
+    }
+}
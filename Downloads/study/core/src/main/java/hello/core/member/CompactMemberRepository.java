@@ -0,0 +1,98 @@
+package hello.core.member;
+
+import java.util.Collection;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * 회원을 CompactMember(불변, 이름 중복 제거)로 저장하는 저장소
+ *
+ * MemoryMemberRepository 대비 회원당 HashMap.Node, Long 키, 가변 Member, 이름 String 이 빠진다.
+ * findCompactById 는 저장된 불변 인스턴스를 그대로 돌려주므로 복사가 없다.
+ * 기존 API(findById)는 호출할 때마다 Member 복사본을 만들어 돌려주므로, 수정한 뒤에는 save를 다시 호출해야 한다.
+ */
+public class CompactMemberRepository implements MemberRepository {
+
+    private final LongObjectMap<CompactMember> store;
+    private final NamePool namePool;
+    private final StampedLock lock = new StampedLock();
+
+    public CompactMemberRepository() {
+        this(16, NamePool.shared());
+    }
+
+    public CompactMemberRepository(int expectedSize, NamePool namePool) {
+        this.store = new LongObjectMap<>(expectedSize);
+        this.namePool = namePool;
+    }
+
+    @Override
+    public void save(Member member) {
+        saveCompact(new CompactMember(member.getId(), member.getName(), member.getGrade(), namePool));
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long stamp = lock.writeLock();
+        try {
+            for (Member member : members) {
+                store.put(member.getId(), new CompactMember(member.getId(), member.getName(), member.getGrade(), namePool));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void saveCompact(CompactMember member) {
+        long stamp = lock.writeLock();
+        try {
+            store.put(member.getId(), member);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        CompactMember member = findCompactById(memberId);
+        return member == null ? null : member.toMember();
+    }
+
+    public CompactMember findCompactById(long memberId) {
+        long stamp = lock.tryOptimisticRead();
+        CompactMember member = store.get(memberId);
+        if (lock.validate(stamp)) {
+            return member;
+        }
+        stamp = lock.readLock();
+        try {
+            return store.get(memberId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        long stamp = lock.readLock();
+        try {
+            return store.maxKey();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return store.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hello.core.member;
+
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 여러 스레드(톰캣 워커 등)가 동시에 join / findMember 를 호출해도 안전한 저장소
+ * ConcurrentHashMap은 버킷 단위로 락을 나눠 잡고(lock striping) 조회는 락 없이 읽기 때문에
+ * 전역 락(synchronized)처럼 요청 경로 전체를 직렬화하지 않는다.
+ */
+public class ConcurrentMemberRepository implements MemberRepository {
+
+    private final Map<Long, Member> store;
+
+    public ConcurrentMemberRepository() {
+        this(16);
+    }
+
+    /**
+     * @param initialCapacity 예상 회원 수, 미리 잡아두면 리사이즈 비용을 줄일 수 있다
+     */
+    public ConcurrentMemberRepository(int initialCapacity) {
+        this.store = new ConcurrentHashMap<>(initialCapacity);
+    }
+
+    @Override
+    public void save(Member member) {
+        store.put(member.getId(), member);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        return store.keySet().stream().mapToLong(Long::longValue).max();
+    }
+}
@@ -0,0 +1,396 @@
+package hello.core.member;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * 재시작해도 회원이 사라지지 않는 저장소
+ *
+ * save -> 메모리 매핑된 로그 파일(members.log)에 레코드를 덧붙이고 메모리(ConcurrentHashMap)에도 반영
+ * 주기적으로 전체 회원을 스냅샷(members.snapshot)으로 저장하고 로그를 처음부터 다시 쓴다.
+ * 시작 시 스냅샷을 읽고 로그 뒷부분을 재생(replay)해서 복구한다.
+ *
+ * 로그 레코드 : [payload 길이 int][crc32 int][epoch long][id long][grade byte][이름 길이 int][이름 UTF-8]
+ * epoch는 스냅샷마다 1씩 증가하고, 현재 스냅샷과 epoch가 다른 레코드(이전 로그의 잔여 데이터)는 재생하지 않는다.
+ * 길이가 0이거나 crc가 맞지 않는 레코드(쓰다가 죽은 레코드)를 만나면 그 지점이 로그의 끝이다.
+ */
+public class FileMemberRepository implements MemberRepository, Closeable {
+
+    /**
+     * 디스크 동기화(fsync) 정책 : 내구성 <-> 쓰기 지연시간 트레이드오프
+     */
+    public enum SyncPolicy {
+        /** save 마다 force, 가장 안전하고 가장 느리다 */
+        SYNC,
+        /** 동시에 들어온 save 들을 한 번의 force로 묶고(group commit), force가 끝난 뒤 반환 */
+        GROUP,
+        /** force를 기다리지 않고 반환, 백그라운드에서 주기적으로 force (그 사이 장애 시 유실 가능) */
+        ASYNC
+    }
+
+    static final String SNAPSHOT_FILE = "members.snapshot";
+    static final String LOG_FILE = "members.log";
+
+    private static final long SNAPSHOT_MAGIC = 0x4D454D4245525331L; // "MEMBERS1"
+    private static final byte NULL_GRADE = -1;
+    private static final int NULL_NAME = -1;
+    private static final int RECORD_HEADER = Integer.BYTES * 2;
+    private static final int INITIAL_LOG_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_LOG_SIZE = 1024 * 1024 * 1024;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Map<Long, Member> store = new ConcurrentHashMap<>();
+    private final Path directory;
+    private final SyncPolicy syncPolicy;
+    private final int snapshotEveryRecords;
+
+    private final Object writeLock = new Object();
+    private final FileChannel logChannel;
+    private MappedByteBuffer log;
+    private long epoch;
+    private int recordsSinceSnapshot;
+
+    // group commit 상태 : appendedSeq는 writeLock, syncedSeq는 syncMonitor로 보호
+    private final Object syncMonitor = new Object();
+    private long appendedSeq;
+    private long syncedSeq;
+
+    private final ScheduledExecutorService asyncFlusher;
+    private volatile boolean closed;
+
+    public FileMemberRepository(Path directory) {
+        this(directory, SyncPolicy.GROUP, 10, 1_000_000);
+    }
+
+    /**
+     * @param syncPolicy           fsync 정책
+     * @param asyncFlushMillis     ASYNC 정책일 때 백그라운드 force 주기
+     * @param snapshotEveryRecords 이 개수만큼 로그가 쌓이면 스냅샷을 쓰고 로그를 비운다
+     */
+    public FileMemberRepository(Path directory, SyncPolicy syncPolicy, long asyncFlushMillis, int snapshotEveryRecords) {
+        this.directory = directory;
+        this.syncPolicy = syncPolicy;
+        this.snapshotEveryRecords = snapshotEveryRecords;
+        try {
+            Files.createDirectories(directory);
+            loadSnapshot();
+            logChannel = FileChannel.open(directory.resolve(LOG_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(logChannel.size(), INITIAL_LOG_SIZE));
+            replayLog();
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 저장소 복구 실패: " + directory, e);
+        }
+
+        if (syncPolicy == SyncPolicy.ASYNC) {
+            asyncFlusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "member-log-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            asyncFlusher.scheduleWithFixedDelay(this::flush, asyncFlushMillis, asyncFlushMillis, TimeUnit.MILLISECONDS);
+        } else {
+            asyncFlusher = null;
+        }
+    }
+
+    @Override
+    public void save(Member member) {
+        long seq;
+        synchronized (writeLock) {
+            ensureOpen();
+            append(member);
+            store.put(member.getId(), member);
+            seq = ++appendedSeq;
+            if (syncPolicy == SyncPolicy.SYNC) {
+                log.force();
+            }
+            snapshotIfNeeded();
+        }
+        awaitDurable(seq);
+    }
+
+    // 배치 전체를 한 번의 락, 한 번의 force로 기록한다
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long seq;
+        synchronized (writeLock) {
+            ensureOpen();
+            for (Member member : members) {
+                append(member);
+                store.put(member.getId(), member);
+            }
+            seq = appendedSeq += members.size();
+            if (syncPolicy == SyncPolicy.SYNC) {
+                log.force();
+            }
+            snapshotIfNeeded();
+        }
+        awaitDurable(seq);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return store.get(memberId);
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        return store.keySet().stream().mapToLong(Long::longValue).max();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * 현재 회원 전체를 스냅샷으로 저장하고 로그를 비운다
+     */
+    public void writeSnapshot() {
+        synchronized (writeLock) {
+            ensureOpen();
+            try {
+                long nextEpoch = epoch + 1;
+                Path temp = directory.resolve(SNAPSHOT_FILE + ".tmp");
+                try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+                    buffer.putLong(SNAPSHOT_MAGIC).putLong(nextEpoch).putInt(store.size());
+                    for (Member member : store.values()) {
+                        if (buffer.remaining() < encodedSize(member)) {
+                            writeFully(channel, buffer);
+                        }
+                        encode(buffer, member);
+                    }
+                    writeFully(channel, buffer);
+                    channel.force(true);
+                }
+                Files.move(temp, directory.resolve(SNAPSHOT_FILE),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+                // 스냅샷이 확정된 뒤에만 로그를 새 epoch로 되돌린다, 남아있는 이전 레코드는 epoch가 달라 무시된다
+                epoch = nextEpoch;
+                log.clear();
+                log.putInt(0, 0);
+                recordsSinceSnapshot = 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("회원 스냅샷 저장 실패: " + directory, e);
+            }
+        }
+    }
+
+    /**
+     * 지금까지 기록된 로그를 디스크에 반영한다
+     */
+    public void flush() {
+        forceUpTo(Long.MAX_VALUE);
+    }
+
+    @Override
+    public void close() {
+        if (asyncFlusher != null) {
+            asyncFlusher.shutdown();
+        }
+        synchronized (writeLock) {
+            if (closed) {
+                return;
+            }
+            log.force();
+            closed = true;
+            try {
+                logChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void append(Member member) {
+        int payloadSize = encodedSize(member) - Integer.BYTES + Long.BYTES;
+        int recordSize = RECORD_HEADER + payloadSize;
+        if (log.remaining() < recordSize + Integer.BYTES) {
+            growLog(recordSize);
+        }
+        int start = log.position();
+        log.position(start + RECORD_HEADER);
+        log.putLong(epoch);
+        encodePayload(log, member);
+
+        CRC32 crc = new CRC32();
+        ByteBuffer payload = log.duplicate();
+        payload.position(start + RECORD_HEADER).limit(start + recordSize);
+        crc.update(payload);
+        log.putInt(start + recordSize, 0); // 뒤에 남아있을지 모르는 잔여 레코드가 재생되지 않도록 끝 표시
+        // 길이는 마지막에 기록해서, 중간에 죽으면 길이 0(끝) 또는 crc 불일치로 판단되게 한다
+        log.putInt(start + Integer.BYTES, (int) crc.getValue());
+        log.putInt(start, payloadSize);
+        recordsSinceSnapshot++;
+    }
+
+    private void growLog(int recordSize) {
+        if (log.capacity() >= MAX_LOG_SIZE) {
+            writeSnapshot();
+            return;
+        }
+        try {
+            int position = log.position();
+            long newSize = Math.min((long) log.capacity() * 2, MAX_LOG_SIZE);
+            log.force();
+            log = logChannel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(newSize, position + recordSize * 2L));
+            log.position(position);
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 로그 확장 실패", e);
+        }
+    }
+
+    private void snapshotIfNeeded() {
+        if (recordsSinceSnapshot >= snapshotEveryRecords) {
+            writeSnapshot();
+        }
+    }
+
+    /**
+     * GROUP : syncMonitor를 먼저 잡은 스레드가 리더가 되어 그때까지 append 된 레코드 전체를 한 번에 force 한다.
+     * 리더가 force 하는 동안 도착한 save 들은 대기하다가 다음 force 한 번으로 함께 처리된다.
+     */
+    private void awaitDurable(long seq) {
+        if (syncPolicy == SyncPolicy.GROUP) {
+            forceUpTo(seq);
+        }
+    }
+
+    // 락 순서 : syncMonitor -> writeLock (save는 writeLock만 잡으므로 교착되지 않는다)
+    private void forceUpTo(long seq) {
+        synchronized (syncMonitor) {
+            if (syncedSeq >= seq) {
+                return;
+            }
+            long target;
+            MappedByteBuffer buffer;
+            synchronized (writeLock) {
+                if (closed) {
+                    return;
+                }
+                target = appendedSeq;
+                buffer = log;
+            }
+            if (syncedSeq >= target) {
+                return;
+            }
+            buffer.force();
+            syncedSeq = target;
+        }
+    }
+
+    private void loadSnapshot() throws IOException {
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (!Files.exists(snapshot)) {
+            epoch = 0;
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getLong() != SNAPSHOT_MAGIC) {
+                throw new IOException("올바른 회원 스냅샷 파일이 아닙니다: " + snapshot);
+            }
+            epoch = buffer.getLong();
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                buffer.getInt(); // 길이
+                Member member = decodePayload(buffer);
+                store.put(member.getId(), member);
+            }
+        }
+    }
+
+    private void replayLog() {
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + RECORD_HEADER + Long.BYTES <= log.capacity()) {
+            int payloadSize = log.getInt(position);
+            if (payloadSize <= 0 || position + RECORD_HEADER + payloadSize > log.capacity()) {
+                break;
+            }
+            ByteBuffer payload = log.duplicate();
+            payload.position(position + RECORD_HEADER).limit(position + RECORD_HEADER + payloadSize);
+            crc.reset();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != log.getInt(position + Integer.BYTES) || payload.getLong() != epoch) {
+                break;
+            }
+            Member member = decodePayload(payload);
+            store.put(member.getId(), member);
+            recordsSinceSnapshot++;
+            position += RECORD_HEADER + payloadSize;
+        }
+        log.position(position);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("이미 닫힌 회원 저장소입니다: " + directory);
+        }
+    }
+
+    // 스냅샷 레코드 크기 : [길이 int] + payload(epoch 제외)
+    private static int encodedSize(Member member) {
+        String name = member.getName();
+        int nameBytes = name == null ? 0 : name.getBytes(StandardCharsets.UTF_8).length;
+        return Integer.BYTES + Long.BYTES + 1 + Integer.BYTES + nameBytes;
+    }
+
+    private static void encode(ByteBuffer buffer, Member member) {
+        buffer.putInt(encodedSize(member) - Integer.BYTES);
+        encodePayload(buffer, member);
+    }
+
+    private static void encodePayload(ByteBuffer buffer, Member member) {
+        buffer.putLong(member.getId());
+        buffer.put(member.getGrade() == null ? NULL_GRADE : (byte) member.getGrade().ordinal());
+        if (member.getName() == null) {
+            buffer.putInt(NULL_NAME);
+        } else {
+            byte[] name = member.getName().getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+    }
+
+    private static Member decodePayload(ByteBuffer buffer) {
+        long id = buffer.getLong();
+        byte grade = buffer.get();
+        int nameLength = buffer.getInt();
+        String name = null;
+        if (nameLength != NULL_NAME) {
+            byte[] bytes = new byte[nameLength];
+            buffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new Member(id, name, grade == NULL_GRADE ? null : GRADES[grade]);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
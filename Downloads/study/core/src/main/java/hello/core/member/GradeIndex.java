@@ -0,0 +1,144 @@
+package hello.core.member;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 등급별 회원 id 비트맵
+ * id 공간을 65,536개 단위 페이지로 나누고, 회원이 한 명이라도 있는 페이지만 long[] 을 할당한다.
+ * 페이지 목록은 페이지 번호 -> 페이지 맵이라 빈 구간은 메모리를 쓰지 않는다 (id가 1e12 이든 음수든 페이지 하나)
+ * id가 조밀하게 발급될수록 페이지당 회원이 많아져서 효율이 좋다.
+ * 등급별 회원 수는 따로 세어 두어서 O(1)로 조회한다.
+ *
+ * 쓰기는 synchronized, 읽기(iterator)는 락 없이 페이지를 훑으므로 순회 중 변경은 반영될 수도 안 될 수도 있다.
+ */
+class GradeIndex {
+
+    private static final int PAGE_SHIFT = 16;
+    private static final int WORDS_PER_PAGE = (1 << PAGE_SHIFT) / Long.SIZE;
+    private static final Grade[] GRADES = Grade.values();
+
+    private final Bitmap[] bitmaps = new Bitmap[GRADES.length];
+
+    GradeIndex() {
+        for (int i = 0; i < bitmaps.length; i++) {
+            bitmaps[i] = new Bitmap();
+        }
+    }
+
+    /**
+     * id의 등급을 grade로 기록한다, 다른 등급으로 들어가 있었다면 옮긴다 (grade가 null이면 인덱스에서 뺀다)
+     */
+    synchronized void put(long id, Grade grade) {
+        for (int i = 0; i < bitmaps.length; i++) {
+            if (grade == null || i != grade.ordinal()) {
+                bitmaps[i].clear(id);
+            }
+        }
+        if (grade != null) {
+            bitmaps[grade.ordinal()].set(id);
+        }
+    }
+
+    long count(Grade grade) {
+        return bitmaps[grade.ordinal()].count;
+    }
+
+    PrimitiveIterator.OfLong ids(Grade grade) {
+        return bitmaps[grade.ordinal()].iterator();
+    }
+
+    private static class Bitmap {
+
+        // 페이지 번호(id >> PAGE_SHIFT, 부호 유지) 오름차순 -> id 오름차순으로 순회된다
+        private final ConcurrentSkipListMap<Long, AtomicLongArray> pages = new ConcurrentSkipListMap<>();
+        private volatile long count;
+
+        void set(long id) {
+            long pageIndex = id >> PAGE_SHIFT;
+            AtomicLongArray page = pages.get(pageIndex);
+            if (page == null) {
+                page = new AtomicLongArray(WORDS_PER_PAGE);
+                pages.put(pageIndex, page);
+            }
+            int bit = (int) (id & ((1 << PAGE_SHIFT) - 1));
+            long word = page.get(bit >>> 6);
+            long mask = 1L << bit;
+            if ((word & mask) == 0) {
+                page.set(bit >>> 6, word | mask);
+                count++;
+            }
+        }
+
+        void clear(long id) {
+            AtomicLongArray page = pages.get(id >> PAGE_SHIFT);
+            if (page == null) {
+                return;
+            }
+            int bit = (int) (id & ((1 << PAGE_SHIFT) - 1));
+            long word = page.get(bit >>> 6);
+            long mask = 1L << bit;
+            if ((word & mask) != 0) {
+                page.set(bit >>> 6, word & ~mask);
+                count--;
+            }
+        }
+
+        PrimitiveIterator.OfLong iterator() {
+            Iterator<Map.Entry<Long, AtomicLongArray>> pageIterator = pages.entrySet().iterator();
+            return new PrimitiveIterator.OfLong() {
+                private AtomicLongArray page;
+                private long pageBase;
+                private int wordIndex = WORDS_PER_PAGE;
+                private long word = 0;
+                private boolean hasNext;
+                private long next;
+
+                @Override
+                public boolean hasNext() {
+                    if (hasNext) {
+                        return true;
+                    }
+                    while (word == 0) {
+                        if (!advanceWord()) {
+                            return false;
+                        }
+                    }
+                    int bit = Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    next = pageBase + ((long) (wordIndex - 1) << 6) + bit;
+                    hasNext = true;
+                    return true;
+                }
+
+                @Override
+                public long nextLong() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    hasNext = false;
+                    return next;
+                }
+
+                // 다음 word를 읽어온다, wordIndex는 항상 "다음에 읽을 위치"
+                private boolean advanceWord() {
+                    if (wordIndex == WORDS_PER_PAGE) {
+                        if (!pageIterator.hasNext()) {
+                            return false;
+                        }
+                        Map.Entry<Long, AtomicLongArray> entry = pageIterator.next();
+                        page = entry.getValue();
+                        pageBase = entry.getKey() << PAGE_SHIFT;
+                        wordIndex = 0;
+                    }
+                    word = page.get(wordIndex++);
+                    return true;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package hello.core.member;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.PrimitiveIterator;
+
+/**
+ * 다른 MemberRepository를 감싸서 보조 인덱스(등급별 비트맵, 선택적으로 이름 prefix 인덱스)를 함께 관리하는 저장소
+ *
+ * 저장 / 조회한 회원에 리스너를 걸어두기 때문에 member.setGrade(VIP), setName(..) 으로 값이 바뀌면
+ * 인덱스가 바로 갱신되고, 바뀐 회원은 원래 저장소에도 다시 저장된다.
+ * (off-heap, 파일 저장소처럼 조회 결과가 복사본인 저장소도 setGrade 만으로 반영된다)
+ * 단 조회한 뒤에 같은 id로 더 새로운 값이 저장됐다면 그 복사본은 낡은 것이므로 변경을 반영하지 않고 리스너를 뗀다
+ * (낡은 복사본의 다른 필드로 새 값을 덮어쓰지 않도록, 변경 전 값이 저장소의 현재 값과 같을 때만 반영한다)
+ *
+ * 인덱스와 원래 저장소가 어긋나지 않도록 쓰기(save, 등급 / 이름 변경)는 이 객체 단위로 직렬화한다. 조회는 락이 없다.
+ */
+public class IndexedMemberRepository implements MemberRepository, SnapshotCapable, MemberChangeListener {
+
+    private final MemberRepository delegate;
+    private final GradeIndex gradeIndex = new GradeIndex();
+    private final NameIndex nameIndex; // 이름 인덱스를 쓰지 않으면 null
+
+    public IndexedMemberRepository(MemberRepository delegate) {
+        this(delegate, false);
+    }
+
+    public IndexedMemberRepository(MemberRepository delegate, boolean nameIndexEnabled) {
+        this.delegate = delegate;
+        this.nameIndex = nameIndexEnabled ? new NameIndex() : null;
+    }
+
+    @Override
+    public synchronized void save(Member member) {
+        index(member, delegate.findById(member.getId()));
+        delegate.save(member);
+    }
+
+    @Override
+    public synchronized void saveAll(Collection<Member> members) {
+        // 배치 안에 같은 id가 여러 번 있으면 바로 앞의 것을 이전 값으로 본다 (원래 저장소에는 아직 저장 전)
+        Map<Long, Member> batch = new HashMap<>();
+        for (Member member : members) {
+            Member previous = batch.put(member.getId(), member);
+            index(member, previous != null ? previous : delegate.findById(member.getId()));
+        }
+        delegate.saveAll(members);
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return attach(delegate.findById(memberId));
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        return attach(delegate.findById(memberId));
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        List<Member> members = delegate.findAllById(memberIds);
+        for (Member member : members) {
+            attach(member);
+        }
+        return members;
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        return delegate.maxId();
+    }
+
+    @Override
+    public MemberSnapshot snapshot() {
+        return SnapshotCapable.snapshotOf(delegate);
+    }
+
+    @Override
+    public boolean supportsSnapshot() {
+        return SnapshotCapable.supports(delegate);
+    }
+
+    /**
+     * @return 해당 등급 회원 수, O(1)
+     */
+    public long countByGrade(Grade grade) {
+        return gradeIndex.count(grade);
+    }
+
+    /**
+     * @return 해당 등급 회원 id를 오름차순으로 하나씩 꺼내는 iterator (목록을 미리 만들지 않는다)
+     */
+    public PrimitiveIterator.OfLong findIdsByGrade(Grade grade) {
+        return gradeIndex.ids(grade);
+    }
+
+    /**
+     * 이름이 prefix로 시작하는 회원을 이름순으로 최대 limit 명 찾는다, O(log n + limit)
+     */
+    public List<Member> findByNamePrefix(String prefix, int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit 는 0 이상이어야 합니다: " + limit);
+        }
+        if (nameIndex == null) {
+            throw new IllegalStateException("이름 인덱스를 사용하지 않는 저장소입니다");
+        }
+        List<Member> members = new ArrayList<>(Math.min(limit, 64));
+        nameIndex.findByPrefix(prefix, limit, id -> {
+            Member member = findById(id);
+            if (member != null) {
+                members.add(member);
+            }
+        });
+        return members;
+    }
+
+    /**
+     * @return 이름 인덱스 엔트리 수 (이름이 있는 회원 수), O(1)
+     * 엔트리당 메모리는 MemberFootprintReport 로 잰다
+     */
+    public long nameIndexSize() {
+        return nameIndex == null ? 0 : nameIndex.size();
+    }
+
+    @Override
+    public synchronized void gradeChanged(Member member, Grade oldGrade) {
+        Member stored = delegate.findById(member.getId());
+        if (stored != member && !isCurrent(stored, member.getName(), oldGrade)) {
+            member.setListener(null);
+            return;
+        }
+        gradeIndex.put(member.getId(), member.getGrade());
+        delegate.save(member);
+    }
+
+    @Override
+    public synchronized void nameChanged(Member member, String oldName) {
+        Member stored = delegate.findById(member.getId());
+        if (stored != member && !isCurrent(stored, oldName, member.getGrade())) {
+            member.setListener(null);
+            return;
+        }
+        if (nameIndex != null) {
+            nameIndex.remove(oldName, member.getId()); // 위에서 저장된 이름이 oldName 인 것을 확인했다
+            nameIndex.add(member.getName(), member.getId());
+        }
+        delegate.save(member);
+    }
+
+    // 복사본의 변경 전 값이 저장소의 현재 값과 같은지 (다르면 조회 이후에 다른 save 가 있었다)
+    private static boolean isCurrent(Member stored, String name, Grade grade) {
+        return stored != null && stored.getGrade() == grade && Objects.equals(stored.getName(), name);
+    }
+
+    private void index(Member member, Member previous) {
+        // 같은 id로 다른 객체가 저장되면 이전 객체의 변경은 더 이상 인덱스에 반영하지 않는다
+        if (previous != null && previous != member && previous.getListener() == this) {
+            previous.setListener(null);
+        }
+        gradeIndex.put(member.getId(), member.getGrade());
+        if (nameIndex != null) {
+            if (previous != null) {
+                nameIndex.remove(previous.getName(), previous.getId());
+            }
+            nameIndex.add(member.getName(), member.getId());
+        }
+        member.setListener(this);
+    }
+
+    private Member attach(Member member) {
+        if (member != null && member.getListener() == null) {
+            member.setListener(this);
+        }
+        return member;
+    }
+}
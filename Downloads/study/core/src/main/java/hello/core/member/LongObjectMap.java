@@ -0,0 +1,139 @@
+package hello.core.member;
+
+import hello.core.common.LongHash;
+
+import java.util.OptionalLong;
+
+/**
+ * long 키 전용 오픈 어드레싱(선형 탐사) 해시맵
+ * HashMap<Long, V> 와 달리 키를 박싱하지 않고, 엔트리마다 Node 객체를 만들지 않는다.
+ * 키 배열(long[]) + 값 배열(Object[]) 두 개만 사용하므로 엔트리당 힙 사용량이 훨씬 작다.
+ *
+ * 삭제는 지원하지 않는다 (MemberRepository에 삭제가 없음)
+ * 스레드 안전하지 않으므로 외부에서 동기화해야 한다.
+ * 단, get()은 동시에 resize가 일어나도 예외 없이 끝나도록 작성되어 있어 낙관적 읽기에 사용할 수 있다.
+ */
+class LongObjectMap<V> {
+
+    private static final long EMPTY_KEY = 0L; // 0번 키는 빈 슬롯 표시로 쓰기 때문에 별도로 보관
+    private static final float LOAD_FACTOR = 0.75f;
+
+    private long[] keys;
+    private Object[] values;
+    private int size;
+    private int resizeThreshold;
+
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    LongObjectMap(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 4) / LOAD_FACTOR));
+        keys = new long[capacity];
+        values = new Object[capacity];
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        if (key == EMPTY_KEY) {
+            return hasZeroKey ? zeroValue : null;
+        }
+        long[] k = keys;
+        Object[] v = values;
+        if (k.length != v.length) { // resize 도중이면 null, 호출한 쪽에서 검증 후 다시 읽는다
+            return null;
+        }
+        int mask = k.length - 1;
+        int index = LongHash.hash(key) & mask;
+        for (int probe = 0; probe < k.length; probe++) {
+            long current = k[index];
+            if (current == key) {
+                return (V) v[index];
+            }
+            if (current == EMPTY_KEY) {
+                return null;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * @return 이전 값, 없었으면 null
+     */
+    @SuppressWarnings("unchecked")
+    V put(long key, V value) {
+        if (key == EMPTY_KEY) {
+            V previous = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        int mask = keys.length - 1;
+        int index = LongHash.hash(key) & mask;
+        while (keys[index] != EMPTY_KEY) {
+            if (keys[index] == key) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = value;
+        if (++size > resizeThreshold) {
+            resize();
+        }
+        return null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * @return 가장 큰 키, 비어 있으면 empty (테이블 전체를 훑는다)
+     */
+    OptionalLong maxKey() {
+        boolean found = hasZeroKey;
+        long max = EMPTY_KEY;
+        for (long key : keys) {
+            if (key != EMPTY_KEY && (!found || key > max)) {
+                max = key;
+                found = true;
+            }
+        }
+        return found ? OptionalLong.of(max) : OptionalLong.empty();
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        int capacity = oldKeys.length * 2;
+        long[] newKeys = new long[capacity];
+        Object[] newValues = new Object[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY_KEY) {
+                int index = LongHash.hash(key) & mask;
+                while (newKeys[index] != EMPTY_KEY) {
+                    index = (index + 1) & mask;
+                }
+                newKeys[index] = key;
+                newValues[index] = oldValues[i];
+            }
+        }
+        keys = newKeys;
+        values = newValues;
+        resizeThreshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int n = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        return n < 0 ? 1 << 30 : n;
+    }
+}
@@ -1,5 +1,7 @@
 package hello.core.member;
 
+import java.util.Objects;
+
 public class Member {
 
     private Long id;
@@ -8,6 +10,8 @@ public class Member {
 
     private Grade grade;
 
+    private volatile MemberChangeListener listener; // 인덱스를 가진 저장소에 보관될 때만 설정된다
+
     public Member(Long id, String name, Grade grade) {
         this.id = id;
         this.name = name;
@@ -27,7 +31,12 @@ public class Member {
     }
 
     public void setName(String name) {
+        String oldName = this.name;
         this.name = name;
+        MemberChangeListener listener = this.listener;
+        if (listener != null && !Objects.equals(oldName, name)) {
+            listener.nameChanged(this, oldName);
+        }
     }
 
     public Grade getGrade() {
@@ -35,6 +44,19 @@ public class Member {
     }
 
     public void setGrade(Grade grade) {
+        Grade oldGrade = this.grade;
         this.grade = grade;
+        MemberChangeListener listener = this.listener;
+        if (listener != null && oldGrade != grade) {
+            listener.gradeChanged(this, oldGrade);
+        }
+    }
+
+    MemberChangeListener getListener() {
+        return listener;
+    }
+
+    void setListener(MemberChangeListener listener) {
+        this.listener = listener;
     }
 }
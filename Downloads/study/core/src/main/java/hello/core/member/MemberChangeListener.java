@@ -0,0 +1,12 @@
+package hello.core.member;
+
+/**
+ * 저장소에 보관된 회원의 값이 setter로 바뀌었을 때 보조 인덱스를 갱신하기 위한 콜백
+ * 인덱스를 관리하는 저장소가 save / findById 시점에 회원에 등록한다.
+ */
+interface MemberChangeListener {
+
+    void gradeChanged(Member member, Grade oldGrade);
+
+    void nameChanged(Member member, String oldName);
+}
@@ -0,0 +1,59 @@
+package hello.core.member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+
+/**
+ * 회원을 하나씩 꺼내서 고정 크기 버퍼에 인코딩하고, 버퍼가 차면 채널에 쓴다
+ * 전체 회원 목록을 메모리에 올리지 않으므로 파일 크기와 상관없이 힙 사용량이 일정하다.
+ */
+public class MemberExporter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+
+    private final MemberFormat format;
+    private final int chunkSize;
+
+    public MemberExporter(MemberFormat format) {
+        this(format, DEFAULT_CHUNK_SIZE);
+    }
+
+    public MemberExporter(MemberFormat format, int chunkSize) {
+        this.format = format;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * @return 내보낸 회원 수
+     */
+    public long export(Iterator<? extends Member> members, WritableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+        long count = 0;
+        while (members.hasNext()) {
+            Member member = members.next();
+            if (!format.encode(member, buffer)) {
+                flush(buffer, channel);
+                if (!format.encode(member, buffer)) { // 버퍼보다 큰 회원 하나는 전용 버퍼로 쓴다
+                    ByteBuffer large = ByteBuffer.allocate(chunkSize * 2);
+                    while (!format.encode(member, large)) {
+                        large = ByteBuffer.allocate(large.capacity() * 2);
+                    }
+                    flush(large, channel);
+                }
+            }
+            count++;
+        }
+        flush(buffer, channel);
+        return count;
+    }
+
+    private static void flush(ByteBuffer buffer, WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
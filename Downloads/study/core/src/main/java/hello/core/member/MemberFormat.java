@@ -0,0 +1,284 @@
+package hello.core.member;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 회원 가져오기 / 내보내기 파일 형식
+ *
+ * BINARY : [id long][grade byte, null 이면 -1][이름 길이 int, null 이면 -1][이름 UTF-8] 반복
+ * NDJSON : 한 줄에 회원 하나 {"id":1,"name":"memberA","grade":"VIP"}
+ *
+ * encode는 버퍼에 자리가 모자라면 아무것도 쓰지 않고 false,
+ * decode는 버퍼에 레코드가 다 들어오지 않았으면 position을 되돌리고 null 을 돌려준다.
+ * 입력 끝에서는 decodeAtEnd 를 쓴다 (NDJSON 은 마지막 줄에 줄바꿈이 없어도 한 줄로 읽는다)
+ */
+public enum MemberFormat {
+
+    BINARY {
+        @Override
+        boolean encode(Member member, ByteBuffer buffer) {
+            byte[] name = member.getName() == null ? null : member.getName().getBytes(StandardCharsets.UTF_8);
+            int size = Long.BYTES + 1 + Integer.BYTES + (name == null ? 0 : name.length);
+            if (buffer.remaining() < size) {
+                return false;
+            }
+            buffer.putLong(member.getId());
+            buffer.put(member.getGrade() == null ? NULL : (byte) member.getGrade().ordinal());
+            buffer.putInt(name == null ? NULL : name.length);
+            if (name != null) {
+                buffer.put(name);
+            }
+            return true;
+        }
+
+        @Override
+        Member decode(ByteBuffer buffer) {
+            int start = buffer.position();
+            if (buffer.remaining() < Long.BYTES + 1 + Integer.BYTES) {
+                return null;
+            }
+            long id = buffer.getLong();
+            byte grade = buffer.get();
+            int nameLength = buffer.getInt();
+            if (nameLength < NULL) {
+                throw new IllegalArgumentException("잘못된 회원 레코드 (이름 길이 " + nameLength + "), id = " + id);
+            }
+            if (nameLength > buffer.remaining()) {
+                buffer.position(start);
+                return null;
+            }
+            String name = null;
+            if (nameLength != NULL) {
+                name = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), nameLength, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + nameLength);
+            }
+            return new Member(id, name, grade == NULL ? null : GRADES[grade]);
+        }
+    },
+
+    NDJSON {
+        @Override
+        boolean encode(Member member, ByteBuffer buffer) {
+            StringBuilder line = new StringBuilder(64);
+            line.append("{\"id\":").append(member.getId()).append(",\"name\":");
+            appendString(line, member.getName());
+            line.append(",\"grade\":");
+            appendString(line, member.getGrade() == null ? null : member.getGrade().name());
+            line.append("}\n");
+            byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < bytes.length) {
+                return false;
+            }
+            buffer.put(bytes);
+            return true;
+        }
+
+        @Override
+        Member decode(ByteBuffer buffer) {
+            while (true) {
+                int start = buffer.position();
+                int end = start;
+                while (end < buffer.limit() && buffer.get(end) != '\n') {
+                    end++;
+                }
+                if (end == buffer.limit()) {
+                    return null;
+                }
+                String line = new String(buffer.array(), buffer.arrayOffset() + start, end - start, StandardCharsets.UTF_8);
+                buffer.position(end + 1);
+                if (!line.isBlank()) { // 빈 줄은 건너뛴다
+                    return new JsonLineParser(line).parseMember();
+                }
+            }
+        }
+
+        // 마지막 줄에 '\n' 이 없으면 남은 바이트 전체를 한 줄로 본다
+        @Override
+        Member decodeAtEnd(ByteBuffer buffer) {
+            Member member = decode(buffer);
+            if (member != null || !buffer.hasRemaining()) {
+                return member;
+            }
+            String line = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), StandardCharsets.UTF_8);
+            buffer.position(buffer.limit());
+            return line.isBlank() ? null : new JsonLineParser(line).parseMember();
+        }
+    };
+
+    private static final byte NULL = -1;
+    private static final Grade[] GRADES = Grade.values();
+
+    abstract boolean encode(Member member, ByteBuffer buffer);
+
+    abstract Member decode(ByteBuffer buffer);
+
+    /**
+     * 더 읽을 입력이 없을 때의 decode, 남은 바이트로 레코드를 만들 수 없으면 position을 그대로 두고 null
+     */
+    Member decodeAtEnd(ByteBuffer buffer) {
+        return decode(buffer);
+    }
+
+    private static void appendString(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': line.append("\\\""); break;
+                case '\\': line.append("\\\\"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\t': line.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        line.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        line.append(c);
+                    }
+            }
+        }
+        line.append('"');
+    }
+
+    /**
+     * 회원 한 줄 전용 JSON 파서 (id / name / grade 필드만 읽고 나머지 필드는 무시한다)
+     */
+    private static class JsonLineParser {
+
+        private final String line;
+        private int index;
+
+        JsonLineParser(String line) {
+            this.line = line;
+        }
+
+        Member parseMember() {
+            Long id = null;
+            String name = null;
+            Grade grade = null;
+
+            expect('{');
+            skipWhitespace();
+            if (peek() != '}') {
+                do {
+                    skipWhitespace();
+                    String field = readString();
+                    skipWhitespace();
+                    expect(':');
+                    skipWhitespace();
+                    switch (field) {
+                        case "id": id = readLong(); break;
+                        case "name": name = readNullableString(); break;
+                        case "grade":
+                            String gradeName = readNullableString();
+                            grade = gradeName == null ? null : Grade.valueOf(gradeName);
+                            break;
+                        default: skipValue();
+                    }
+                    skipWhitespace();
+                } while (tryConsume(','));
+            }
+            expect('}');
+            if (id == null) {
+                throw new IllegalArgumentException("id가 없는 회원입니다: " + line);
+            }
+            return new Member(id, name, grade);
+        }
+
+        private long readLong() {
+            int start = index;
+            if (peek() == '-') {
+                index++;
+            }
+            while (index < line.length() && Character.isDigit(line.charAt(index))) {
+                index++;
+            }
+            return Long.parseLong(line.substring(start, index));
+        }
+
+        private String readNullableString() {
+            if (line.startsWith("null", index)) {
+                index += 4;
+                return null;
+            }
+            return readString();
+        }
+
+        private String readString() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (true) {
+                char c = next();
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                char escaped = next();
+                switch (escaped) {
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'u':
+                        value.append((char) Integer.parseInt(line.substring(index, index + 4), 16));
+                        index += 4;
+                        break;
+                    default: value.append(escaped);
+                }
+            }
+        }
+
+        // 모르는 필드 : 문자열, 숫자, true / false / null 만 건너뛴다
+        private void skipValue() {
+            if (peek() == '"') {
+                readString();
+                return;
+            }
+            while (index < line.length() && ",}".indexOf(line.charAt(index)) < 0) {
+                index++;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (index < line.length() && Character.isWhitespace(line.charAt(index))) {
+                index++;
+            }
+        }
+
+        private boolean tryConsume(char c) {
+            if (index < line.length() && line.charAt(index) == c) {
+                index++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (!tryConsume(c)) {
+                throw new IllegalArgumentException("잘못된 회원 JSON (" + index + "번째 글자에 '" + c + "' 필요): " + line);
+            }
+        }
+
+        private char peek() {
+            if (index >= line.length()) {
+                throw new IllegalArgumentException("잘못된 회원 JSON (줄이 끝남): " + line);
+            }
+            return line.charAt(index);
+        }
+
+        private char next() {
+            char c = peek();
+            index++;
+            return c;
+        }
+    }
+}
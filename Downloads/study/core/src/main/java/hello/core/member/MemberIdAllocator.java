@@ -0,0 +1,178 @@
+package hello.core.member;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 회원 id 발급기
+ *
+ * - 스레드마다 blockSize 개의 id 구간을 예약해두고 그 안에서 하나씩 꺼내 쓴다 -> 발급 경로에 락도 CAS 경쟁도 없다
+ * - 구간 예약은 전역 카운터 CAS 한 번 (락 없음)
+ * - 파일 경로를 주면 "여기까지는 발급했을 수 있다"는 high-water mark 를 파일에 남기고,
+ *   재시작하면 그 값부터 발급한다 -> 재시작해도 id가 겹치지 않는다 (쓰지 못한 구간은 건너뛴다)
+ *   파일 기록은 blockSize * blocksPerPersist 개마다 한 번이라 드물다
+ *
+ * id는 스레드별 구간에서 나오므로 전체적으로 오름차순은 아니다.
+ * 예약해두고 다 쓰지 못한 구간은 버려진다 -> 재시작할 때마다 스레드당 최대 blockSize - 1 개,
+ * 파일 기반이면 high-water mark 까지 남은 id 도 건너뛴다. id가 촘촘해야 하면 생성자에서 blockSize 를 작게 준다.
+ *
+ * 직접 id를 정한 회원이 들어오면 observe 로 알려준다 -> 이후에 예약하는 구간은 그 id 뒤에서 시작한다.
+ * 그 id가 이미 어떤 스레드가 예약해둔 구간 안에 있을 수 있으면, 그때까지 예약된 구간을 모두 버리게 한다
+ * (스레드마다 다음 nextId 에서 새 구간을 예약한다) -> observe 가 돌아온 뒤로는 그 id를 발급하지 않는다.
+ * 이번 실행에서 예약한 적 없는 범위(시작할 때 저장소에 있던 id 등)는 버릴 구간이 없으므로 비용이 없다.
+ * observe 전에 이미 발급된 id를 직접 정해서 저장하면 저장소 save 와 같이 그 회원을 덮어쓴다.
+ */
+public class MemberIdAllocator {
+
+    private static final int DEFAULT_BLOCK_SIZE = 1_000;
+    private static final int DEFAULT_BLOCKS_PER_PERSIST = 100;
+
+    private final int blockSize;
+    private final long persistStep;
+    private final Path file; // null 이면 메모리에서만 발급
+
+    private final AtomicLong nextBlockStart;
+    private final AtomicLong reservedFrom = new AtomicLong(Long.MAX_VALUE); // 이번 실행에서 예약한 가장 작은 구간 시작 (이하)
+    private final AtomicLong discardBefore = new AtomicLong(Long.MIN_VALUE); // 시작이 이 값 미만인 구간은 버린다
+    private final Object persistLock = new Object();
+    private volatile long persistedMark; // 이 값 미만의 id만 발급할 수 있다
+
+    private final ThreadLocal<Block> blocks = ThreadLocal.withInitial(Block::new);
+
+    /**
+     * 메모리 전용, 1번부터 발급한다
+     */
+    public MemberIdAllocator() {
+        this(null, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCKS_PER_PERSIST);
+    }
+
+    public MemberIdAllocator(Path file) {
+        this(file, DEFAULT_BLOCK_SIZE, DEFAULT_BLOCKS_PER_PERSIST);
+    }
+
+    /**
+     * @param file             high-water mark 파일, null 이면 저장하지 않는다
+     * @param blockSize        스레드가 한 번에 예약하는 id 개수 (재시작하면 스레드당 최대 blockSize - 1 개가 버려진다)
+     * @param blocksPerPersist 파일에 한 번 기록할 때 미리 확보하는 구간 수
+     */
+    public MemberIdAllocator(Path file, int blockSize, int blocksPerPersist) {
+        if (blockSize <= 0 || blocksPerPersist <= 0) {
+            throw new IllegalArgumentException("blockSize, blocksPerPersist 는 0보다 커야 합니다");
+        }
+        this.blockSize = blockSize;
+        this.persistStep = (long) blockSize * blocksPerPersist;
+        this.file = file;
+        long start = file == null ? 1 : load(file);
+        this.nextBlockStart = new AtomicLong(start);
+        this.persistedMark = file == null ? Long.MAX_VALUE : start;
+    }
+
+    public long nextId() {
+        Block block = blocks.get();
+        if (block.next == block.end || block.start < discardBefore.get()) {
+            reserve(block);
+        }
+        return block.next++;
+    }
+
+    /**
+     * 직접 정한 id가 저장된다, 이 메서드가 돌아온 뒤로는 id 를 발급하지 않는다
+     * 이후에 예약하는 구간은 id 보다 뒤에서 시작하고 (파일 기반이면 mark 도 그 뒤로 기록),
+     * 이미 예약된 구간에 id가 들어있을 수 있으면 그 구간들을 버리게 한다
+     */
+    public void observe(long id) {
+        long after = id == Long.MAX_VALUE ? id : id + 1; // MAX_VALUE 뒤로는 발급할 수 없다 (reserve 가 예외)
+        long previous = nextBlockStart.getAndAccumulate(after, Math::max);
+        long next = Math.max(previous, after);
+        if (next > persistedMark) {
+            persistUpTo(next);
+        }
+        if (id < previous && id >= reservedFrom.get()) {
+            discardBefore.accumulateAndGet(next, Math::max);
+        }
+    }
+
+    /**
+     * @return 파일에 기록된 high-water mark (재시작하면 이 값부터 발급)
+     */
+    public long persistedMark() {
+        return persistedMark;
+    }
+
+    private void reserve(Block block) {
+        // 예약 전에 기록해야 observe 가 "예약된 구간 안의 id" 를 놓치지 않는다 (nextBlockStart 는 줄어들지 않는다)
+        long frontier = nextBlockStart.get();
+        if (frontier < reservedFrom.get()) {
+            reservedFrom.accumulateAndGet(frontier, Math::min);
+        }
+        long start = nextBlockStart.getAndUpdate(s -> s > Long.MAX_VALUE - blockSize ? s : s + blockSize);
+        if (start > Long.MAX_VALUE - blockSize) {
+            throw new IllegalStateException("더 발급할 회원 id가 없습니다: " + start);
+        }
+        long end = start + blockSize;
+        if (end > persistedMark) {
+            persistUpTo(end);
+        }
+        block.start = start;
+        block.next = start;
+        block.end = end;
+    }
+
+    // 발급 전에 high-water mark 를 먼저 기록해서, 기록되지 않은 id가 밖으로 나가지 않게 한다
+    private void persistUpTo(long end) {
+        synchronized (persistLock) {
+            if (end <= persistedMark) {
+                return;
+            }
+            long mark = Math.max(end, persistedMark + persistStep);
+            store(mark);
+            persistedMark = mark;
+        }
+    }
+
+    private static long load(Path file) {
+        try {
+            if (!Files.exists(file)) {
+                return 1;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            if (buffer.remaining() < Long.BYTES) {
+                throw new IllegalStateException("잘못된 회원 id 파일: " + file);
+            }
+            return buffer.getLong();
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 id 파일 읽기 실패: " + file, e);
+        }
+    }
+
+    private void store(long mark) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, mark));
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("회원 id 파일 기록 실패: " + file, e);
+        }
+    }
+
+    private static class Block {
+        long start;
+        long next;
+        long end;
+    }
+}
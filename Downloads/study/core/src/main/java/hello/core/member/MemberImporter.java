@@ -0,0 +1,71 @@
+package hello.core.member;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 채널에서 고정 크기 청크 단위로 읽어 회원을 디코딩하고, batchSize 만큼 모이면 saveAll 로 저장한다
+ * 한 번에 메모리에 있는 회원은 최대 batchSize 명이므로 파일 크기와 상관없이 힙 사용량이 일정하다.
+ */
+public class MemberImporter {
+
+    private static final int DEFAULT_CHUNK_SIZE = 256 * 1024;
+    private static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private final MemberFormat format;
+    private final int chunkSize;
+    private final int batchSize;
+
+    public MemberImporter(MemberFormat format) {
+        this(format, DEFAULT_CHUNK_SIZE, DEFAULT_BATCH_SIZE);
+    }
+
+    public MemberImporter(MemberFormat format, int chunkSize, int batchSize) {
+        this.format = format;
+        this.chunkSize = chunkSize;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * @return 가져온 회원 수
+     */
+    public long importTo(ReadableByteChannel channel, MemberRepository memberRepository) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+        List<Member> batch = new ArrayList<>(batchSize);
+        long count = 0;
+        boolean endOfInput = false;
+
+        while (!endOfInput) {
+            endOfInput = channel.read(buffer) < 0;
+            buffer.flip();
+            Member member;
+            while ((member = endOfInput ? format.decodeAtEnd(buffer) : format.decode(buffer)) != null) {
+                batch.add(member);
+                if (batch.size() == batchSize) {
+                    memberRepository.saveAll(batch);
+                    count += batch.size();
+                    batch.clear();
+                }
+            }
+            if (endOfInput && buffer.hasRemaining()) {
+                throw new IllegalArgumentException("파일 끝에 완성되지 않은 회원 레코드가 있습니다 (" + buffer.remaining() + " bytes)");
+            }
+            if (buffer.position() == 0 && buffer.limit() == buffer.capacity()) {
+                // 레코드 하나가 버퍼보다 크면 버퍼를 늘린다
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+        }
+        if (!batch.isEmpty()) {
+            memberRepository.saveAll(batch);
+            count += batch.size();
+        }
+        return count;
+    }
+}
@@ -1,8 +1,48 @@
 package hello.core.member;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+
 public interface MemberRepository {
 
     void save(Member member);
 
     Member findById(Long memberId);
+
+    /**
+     * @return 저장된 회원 중 가장 큰 id, 회원이 없으면 비어 있다
+     * 시작할 때 id 발급기가 이미 있는 id 뒤에서 발급하도록 한 번 부른다 (MemberServiceImpl), 전체를 훑어도 되는 용도
+     */
+    OptionalLong maxId();
+
+    /**
+     * 키를 박싱하지 않는 조회, 기본 구현은 Long 버전에 위임한다
+     * 박싱 없는 저장소(PrimitiveMemberRepository)는 오버라이드해서 할당 없이 조회한다.
+     */
+    default Member findById(long memberId) {
+        return findById(Long.valueOf(memberId));
+    }
+
+    /**
+     * 여러 회원을 한 번에 저장, 기본 구현은 save를 반복 호출한다
+     * 구현체는 배치 단위로 락을 한 번만 잡거나 디스크 동기화를 한 번만 하도록 오버라이드할 수 있다.
+     */
+    default void saveAll(Collection<Member> members) {
+        for (Member member : members) {
+            save(member);
+        }
+    }
+
+    /**
+     * @return memberIds 와 같은 순서의 회원 목록, 없는 회원 자리는 null
+     */
+    default List<Member> findAllById(long[] memberIds) {
+        List<Member> members = new ArrayList<>(memberIds.length);
+        for (long memberId : memberIds) {
+            members.add(findById(memberId));
+        }
+        return members;
+    }
 }
@@ -1,9 +1,20 @@
 package hello.core.member;
 
-public interface MemberService {
+import java.util.Collection;
+import java.util.List;
 
+public interface MemberService {
 
+    /**
+     * id가 null 인 회원은 id를 발급해서 member 에 채운 뒤 저장한다
+     */
     void join(Member member);
 
+    void joinAll(Collection<Member> members);
+
     Member findMember(Long memberId);
+
+    Member findMember(long memberId);
+
+    List<Member> findMembers(long[] memberIds);
 }
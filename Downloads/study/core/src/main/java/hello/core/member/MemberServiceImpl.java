@@ -3,19 +3,34 @@ package hello.core.member;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.List;
+
 @Component
 public class MemberServiceImpl implements MemberService{
 
     private final MemberRepository memberRepository;
+    private final MemberIdAllocator memberIdAllocator;
 
     // ac.getBean(MemberRepository.class)
     @Autowired // 의존관계 자동 주입 : 생성자에 @Autowired를 지정하면, 스프링 컨테이너가 자동으로 해당 스프링 빈을 찾아서 주입한다.
     public MemberServiceImpl(MemberRepository memberRepository) {
+        this(memberRepository, new MemberIdAllocator());
+    }
+
+    /**
+     * @param memberIdAllocator id 없이 join 한 회원에게 id를 발급한다, id는 발급기만 보고 정한다 (저장소 조회 없음)
+     *                          시작할 때 저장소의 가장 큰 id를 알려주므로 메모리 발급기여도 재시작 후 기존 회원과 겹치지 않는다
+     */
+    public MemberServiceImpl(MemberRepository memberRepository, MemberIdAllocator memberIdAllocator) {
         this.memberRepository = memberRepository;
+        this.memberIdAllocator = memberIdAllocator;
+        memberRepository.maxId().ifPresent(memberIdAllocator::observe);
     }
 
     @Override
     public void join(Member member) {
+        assignId(member);
         memberRepository.save(member);
         /**
          * join에서 save를 호출하면 다형성에 의해
@@ -23,11 +38,45 @@ public class MemberServiceImpl implements MemberService{
          */
     }
 
+    @Override
+    public void joinAll(Collection<Member> members) {
+        // 배치 안에서 직접 정한 id를 먼저 알려줘야 발급한 id와 겹치지 않는다
+        for (Member member : members) {
+            if (member.getId() != null) {
+                memberIdAllocator.observe(member.getId());
+            }
+        }
+        for (Member member : members) {
+            if (member.getId() == null) {
+                member.setId(memberIdAllocator.nextId());
+            }
+        }
+        memberRepository.saveAll(members);
+    }
+
     @Override
     public Member findMember(Long memberId) {
         return memberRepository.findById(memberId);
     }
 
+    @Override
+    public Member findMember(long memberId) {
+        return memberRepository.findById(memberId);
+    }
+
+    @Override
+    public List<Member> findMembers(long[] memberIds) {
+        return memberRepository.findAllById(memberIds);
+    }
+
+    private void assignId(Member member) {
+        if (member.getId() == null) {
+            member.setId(memberIdAllocator.nextId());
+        } else {
+            memberIdAllocator.observe(member.getId());
+        }
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository(){
         return memberRepository;
@@ -0,0 +1,23 @@
+package hello.core.member;
+
+/**
+ * 특정 시점의 회원 저장소를 읽기 전용으로 보여주는 뷰 (SnapshotCapable.snapshot())
+ *
+ * 스냅샷을 뜬 뒤에 저장된 회원은 보이지 않고, 돌려주는 Member는 복사본이라 수정해도 저장소에는 영향이 없다.
+ * 다 쓰면 close 해야 저장소가 스냅샷 때문에 남겨둔 이전 버전을 정리할 수 있다.
+ */
+public interface MemberSnapshot extends Iterable<Member>, AutoCloseable {
+
+    /**
+     * @return 스냅샷 시점의 회원, 그때 없던 회원이면 null
+     */
+    Member findById(long memberId);
+
+    /**
+     * @return 스냅샷 시점의 버전 (저장할 때마다 증가하는 저장소 전체 시계 값)
+     */
+    long version();
+
+    @Override
+    void close();
+}
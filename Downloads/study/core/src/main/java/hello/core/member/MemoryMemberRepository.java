@@ -4,6 +4,8 @@ import org.springframework.stereotype.Component;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
 
 @Component
 public class MemoryMemberRepository implements MemberRepository{
@@ -23,4 +25,9 @@ public class MemoryMemberRepository implements MemberRepository{
     public Member findById(Long memberId) {
         return store.get(memberId);
     }
+
+    @Override
+    public OptionalLong maxId() {
+        return store.keySet().stream().filter(Objects::nonNull).mapToLong(Long::longValue).max();
+    }
 }
@@ -0,0 +1,69 @@
+package hello.core.member;
+
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * 이름 앞부분(prefix)으로 회원 id를 찾는 인덱스
+ * (이름, id) 쌍을 정렬된 skip list에 보관하고, prefix 검색은 prefix 위치로 바로 이동한 뒤
+ * prefix로 시작하는 동안만 읽는다 -> O(log n + 결과 수)
+ *
+ * 이름 String은 회원 객체와 같은 인스턴스를 공유하므로 인덱스가 추가로 쓰는 메모리는 엔트리 구조뿐이다.
+ * (회원당 실제 크기는 MemberFootprintReport 가 JOL 로 잰다)
+ * 엔트리 수는 따로 센다 (ConcurrentSkipListSet.size() 는 전체를 훑는다)
+ */
+class NameIndex {
+
+    private final NavigableSet<Entry> entries = new ConcurrentSkipListSet<>();
+    private final LongAdder size = new LongAdder();
+
+    void add(String name, long id) {
+        if (name != null && entries.add(new Entry(name, id))) {
+            size.increment();
+        }
+    }
+
+    void remove(String name, long id) {
+        if (name != null && entries.remove(new Entry(name, id))) {
+            size.decrement();
+        }
+    }
+
+    /**
+     * @return 찾은 개수 (최대 limit)
+     */
+    int findByPrefix(String prefix, int limit, LongConsumer idConsumer) {
+        int found = 0;
+        for (Entry entry : entries.tailSet(new Entry(prefix, Long.MIN_VALUE), true)) {
+            if (found >= limit || !entry.name.startsWith(prefix)) {
+                break;
+            }
+            idConsumer.accept(entry.id);
+            found++;
+        }
+        return found;
+    }
+
+    long size() {
+        return size.sum();
+    }
+
+    private static class Entry implements Comparable<Entry> {
+
+        private final String name;
+        private final long id;
+
+        Entry(String name, long id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int result = name.compareTo(other.name);
+            return result != 0 ? result : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package hello.core.member;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 회원 이름 중복 제거용 intern 풀, 같은 이름이면 같은 String 인스턴스를 돌려준다
+ * String.intern()과 달리 JVM 전역 문자열 테이블을 쓰지 않고, 여러 스레드가 락 없이 동시에 쓸 수 있다.
+ *
+ * 한 번 들어간 이름은 지우지 않는다 (이름 종류가 회원 수보다 훨씬 적다는 가정)
+ */
+public final class NamePool {
+
+    private static final NamePool SHARED = new NamePool();
+
+    private final ConcurrentHashMap<String, String> names = new ConcurrentHashMap<>();
+
+    public static NamePool shared() {
+        return SHARED;
+    }
+
+    public String intern(String name) {
+        if (name == null) {
+            return null;
+        }
+        String pooled = names.putIfAbsent(name, name);
+        return pooled == null ? name : pooled;
+    }
+
+    public int size() {
+        return names.size();
+    }
+}
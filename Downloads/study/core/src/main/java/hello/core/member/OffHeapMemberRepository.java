@@ -0,0 +1,368 @@
+package hello.core.member;
+
+import hello.core.common.LongHash;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 회원을 힙 밖(direct ByteBuffer)에 컬럼 단위로 저장하는 저장소
+ *
+ * 컬럼 : id(long 8byte) / grade(ordinal 1byte) / name(이름 사전 offset 4byte) -> 회원당 13byte
+ * id 인덱스 : id -> row 를 찾는 오픈 어드레싱 테이블 (int 슬롯, 역시 off-heap)
+ * 이름 사전 : [길이 int][UTF-8 bytes] 를 이어 붙인 영역, 같은 이름은 한 번만 저장한다
+ *
+ * 힙에는 Member 객체가 남지 않기 때문에 GC 대상(old 영역)이 거의 없다.
+ * (힙에 남는 저장소 객체 그래프 크기는 MemberFootprintReport 가 JOL 로 잰다)
+ * findById는 호출할 때마다 새 Member 뷰를 만들어 돌려준다.
+ * 뷰를 수정해도 저장소에는 반영되지 않으므로 변경 후에는 save를 다시 호출해야 한다.
+ *
+ * 이름이 바뀌어 더 이상 쓰이지 않는 사전 항목은 회수하지 않는다.
+ */
+public class OffHeapMemberRepository implements MemberRepository {
+
+    private static final Grade[] GRADES = Grade.values();
+    private static final byte NULL_GRADE = -1;
+    private static final int NULL_NAME = -1;
+    private static final int MAX_ROWS = 1 << 27; // id 인덱스(row 수의 2배 이상 슬롯)가 int 범위 버퍼에 들어가도록
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 컬럼
+    private ByteBuffer ids;
+    private ByteBuffer grades;
+    private ByteBuffer nameRefs;
+    private int rowCount;
+    private int rowCapacity;
+
+    // id 인덱스 : row + 1 을 저장, 0 은 빈 슬롯
+    private ByteBuffer idIndex;
+    private int idIndexSlots;
+
+    // 이름 사전 : names 영역의 offset + 1 을 저장, 0 은 빈 슬롯
+    private ByteBuffer names;
+    private int namesSize;
+    private ByteBuffer nameIndex;
+    private int nameIndexSlots;
+    private int nameCount;
+
+    public OffHeapMemberRepository() {
+        this(1024);
+    }
+
+    public OffHeapMemberRepository(int expectedSize) {
+        rowCapacity = Math.max(expectedSize, 16);
+        ids = allocate((long) rowCapacity * Long.BYTES);
+        grades = allocate(rowCapacity);
+        nameRefs = allocate((long) rowCapacity * Integer.BYTES);
+
+        idIndexSlots = slotsFor(rowCapacity);
+        idIndex = allocate((long) idIndexSlots * Integer.BYTES);
+
+        names = allocate(Math.min(rowCapacity * 16L, 1 << 20));
+        nameIndexSlots = slotsFor(64);
+        nameIndex = allocate((long) nameIndexSlots * Integer.BYTES);
+    }
+
+    @Override
+    public void save(Member member) {
+        ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            write(member);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        ReentrantReadWriteLock.WriteLock writeLock = lock.writeLock();
+        writeLock.lock();
+        try {
+            for (Member member : members) {
+                write(member);
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return read(memberId);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            for (int i = 0; i < memberIds.length; i++) {
+                members[i] = read(memberIds[i]);
+            }
+        } finally {
+            readLock.unlock();
+        }
+        return Arrays.asList(members);
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            if (rowCount == 0) {
+                return OptionalLong.empty();
+            }
+            long max = Long.MIN_VALUE;
+            for (int row = 0; row < rowCount; row++) {
+                max = Math.max(max, ids.getLong(row * Long.BYTES));
+            }
+            return OptionalLong.of(max);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public int size() {
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return rowCount;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * off-heap 사용량 : 할당된 direct buffer 용량의 합
+     */
+    public long offHeapBytes() {
+        ReentrantReadWriteLock.ReadLock readLock = lock.readLock();
+        readLock.lock();
+        try {
+            return (long) ids.capacity() + grades.capacity() + nameRefs.capacity()
+                    + idIndex.capacity() + names.capacity() + nameIndex.capacity();
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    private void write(Member member) {
+        long id = member.getId();
+        int nameRef = internName(member.getName());
+        byte grade = member.getGrade() == null ? NULL_GRADE : (byte) member.getGrade().ordinal();
+
+        int row = findRow(id);
+        if (row < 0) {
+            row = appendRow(id);
+        }
+        grades.put(row, grade);
+        nameRefs.putInt(row * Integer.BYTES, nameRef);
+    }
+
+    private Member read(long memberId) {
+        int row = findRow(memberId);
+        if (row < 0) {
+            return null;
+        }
+        byte grade = grades.get(row);
+        return new Member(memberId,
+                readName(nameRefs.getInt(row * Integer.BYTES)),
+                grade == NULL_GRADE ? null : GRADES[grade]);
+    }
+
+    private int findRow(long id) {
+        int mask = idIndexSlots - 1;
+        int slot = LongHash.hash(id) & mask;
+        while (true) {
+            int ref = idIndex.getInt(slot * Integer.BYTES);
+            if (ref == 0) {
+                return -1;
+            }
+            int row = ref - 1;
+            if (ids.getLong(row * Long.BYTES) == id) {
+                return row;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    private int appendRow(long id) {
+        if (rowCount == rowCapacity) {
+            growColumns();
+        }
+        int row = rowCount++;
+        ids.putLong(row * Long.BYTES, id);
+        if (rowCount * 2 > idIndexSlots) {
+            rebuildIdIndex(idIndexSlots * 2);
+        } else {
+            insertIdIndex(id, row);
+        }
+        return row;
+    }
+
+    private void insertIdIndex(long id, int row) {
+        int mask = idIndexSlots - 1;
+        int slot = LongHash.hash(id) & mask;
+        while (idIndex.getInt(slot * Integer.BYTES) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        idIndex.putInt(slot * Integer.BYTES, row + 1);
+    }
+
+    private void rebuildIdIndex(int slots) {
+        idIndexSlots = slots;
+        idIndex = allocate((long) slots * Integer.BYTES);
+        for (int row = 0; row < rowCount; row++) {
+            insertIdIndex(ids.getLong(row * Long.BYTES), row);
+        }
+    }
+
+    private void growColumns() {
+        if (rowCapacity >= MAX_ROWS) {
+            throw new IllegalStateException("off-heap 저장소 최대 회원 수 초과: " + MAX_ROWS);
+        }
+        rowCapacity = (int) Math.min((long) rowCapacity * 2, MAX_ROWS);
+        ids = copyOf(ids, (long) rowCapacity * Long.BYTES, rowCount * Long.BYTES);
+        grades = copyOf(grades, rowCapacity, rowCount);
+        nameRefs = copyOf(nameRefs, (long) rowCapacity * Integer.BYTES, rowCount * Integer.BYTES);
+    }
+
+    private int internName(String name) {
+        if (name == null) {
+            return NULL_NAME;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int mask = nameIndexSlots - 1;
+        int slot = hash(bytes) & mask;
+        while (true) {
+            int ref = nameIndex.getInt(slot * Integer.BYTES);
+            if (ref == 0) {
+                break;
+            }
+            if (nameEquals(ref - 1, bytes)) {
+                return ref - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int offset = appendName(bytes);
+        nameIndex.putInt(slot * Integer.BYTES, offset + 1);
+        if (++nameCount * 2 > nameIndexSlots) {
+            rebuildNameIndex(nameIndexSlots * 2);
+        }
+        return offset;
+    }
+
+    private int appendName(byte[] bytes) {
+        long required = (long) namesSize + Integer.BYTES + bytes.length;
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("off-heap 이름 사전 최대 크기 초과");
+        }
+        if (required > names.capacity()) {
+            names = copyOf(names, Math.min(Math.max(required, names.capacity() * 2L), Integer.MAX_VALUE), namesSize);
+        }
+        int offset = namesSize;
+        names.putInt(offset, bytes.length);
+        ByteBuffer target = names.duplicate();
+        target.position(offset + Integer.BYTES);
+        target.put(bytes);
+        namesSize = (int) required;
+        return offset;
+    }
+
+    private void rebuildNameIndex(int slots) {
+        nameIndexSlots = slots;
+        nameIndex = allocate((long) slots * Integer.BYTES);
+        int mask = slots - 1;
+        int offset = 0;
+        while (offset < namesSize) {
+            int length = names.getInt(offset);
+            int slot = hash(names, offset + Integer.BYTES, length) & mask;
+            while (nameIndex.getInt(slot * Integer.BYTES) != 0) {
+                slot = (slot + 1) & mask;
+            }
+            nameIndex.putInt(slot * Integer.BYTES, offset + 1);
+            offset += Integer.BYTES + length;
+        }
+    }
+
+    private boolean nameEquals(int offset, byte[] bytes) {
+        if (names.getInt(offset) != bytes.length) {
+            return false;
+        }
+        int start = offset + Integer.BYTES;
+        for (int i = 0; i < bytes.length; i++) {
+            if (names.get(start + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String readName(int offset) {
+        if (offset == NULL_NAME) {
+            return null;
+        }
+        byte[] bytes = new byte[names.getInt(offset)];
+        ByteBuffer source = names.duplicate();
+        source.position(offset + Integer.BYTES);
+        source.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // byte[] 와 버퍼 안의 bytes 가 같은 해시값을 내야 하므로 같은 방식(FNV-1a)으로 계산한다
+    private static int hash(byte[] bytes) {
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ b) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(ByteBuffer buffer, int offset, int length) {
+        int h = 0x811C9DC5;
+        for (int i = offset; i < offset + length; i++) {
+            h = (h ^ buffer.get(i)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    private static int slotsFor(int entries) {
+        return Integer.highestOneBit(Math.max(entries, 8) * 2 - 1) << 1;
+    }
+
+    private static ByteBuffer allocate(long bytes) {
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    // 이전 버퍼는 참조가 끊기면 GC(Cleaner)가 네이티브 메모리를 해제한다
+    private static ByteBuffer copyOf(ByteBuffer source, long newCapacity, int usedBytes) {
+        ByteBuffer target = allocate(newCapacity);
+        ByteBuffer used = source.duplicate();
+        used.position(0).limit(usedBytes);
+        target.put(used);
+        target.clear();
+        return target;
+    }
+}
@@ -0,0 +1,111 @@
+package hello.core.member;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * long 키 오픈 어드레싱 맵(LongObjectMap)을 사용하는 저장소
+ * findById(long)으로 조회하면 키 박싱, Long.hashCode / equals 호출, HashMap.Node 할당이 모두 없다.
+ * 조회는 StampedLock 낙관적 읽기로 처리해서 쓰기가 없을 때는 락을 잡지 않는다.
+ */
+public class PrimitiveMemberRepository implements MemberRepository {
+
+    private final LongObjectMap<Member> store;
+    private final StampedLock lock = new StampedLock();
+
+    public PrimitiveMemberRepository() {
+        this(16);
+    }
+
+    public PrimitiveMemberRepository(int expectedSize) {
+        this.store = new LongObjectMap<>(expectedSize);
+    }
+
+    @Override
+    public void save(Member member) {
+        long stamp = lock.writeLock();
+        try {
+            store.put(member.getId(), member);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        long stamp = lock.tryOptimisticRead();
+        Member member = store.get(memberId);
+        if (lock.validate(stamp)) {
+            return member;
+        }
+        stamp = lock.readLock();
+        try {
+            return store.get(memberId);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // 배치 전체에 쓰기 락을 한 번만 잡는다
+    @Override
+    public void saveAll(Collection<Member> members) {
+        long stamp = lock.writeLock();
+        try {
+            for (Member member : members) {
+                store.put(member.getId(), member);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // 배치 전체를 낙관적 읽기 한 번으로 처리하고, 중간에 쓰기가 끼어들면 읽기 락으로 다시 읽는다
+    @Override
+    public List<Member> findAllById(long[] memberIds) {
+        Member[] members = new Member[memberIds.length];
+        long stamp = lock.tryOptimisticRead();
+        fill(members, memberIds);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                fill(members, memberIds);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return Arrays.asList(members);
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        long stamp = lock.readLock();
+        try {
+            return store.maxKey();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return store.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void fill(Member[] members, long[] memberIds) {
+        for (int i = 0; i < memberIds.length; i++) {
+            members[i] = store.get(memberIds[i]);
+        }
+    }
+}
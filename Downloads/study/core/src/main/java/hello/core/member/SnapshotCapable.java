@@ -0,0 +1,40 @@
+package hello.core.member;
+
+/**
+ * 스냅샷(특정 시점의 읽기 전용 뷰)을 뜰 수 있는 저장소
+ * 버전을 관리하는 저장소(VersionedMemberRepository)와, 그런 저장소를 감쌀 수 있는 데코레이터가 구현한다.
+ * 데코레이터는 감싼 저장소가 지원할 때만 스냅샷을 뜰 수 있으므로, 부르기 전에 supports 로 확인한다.
+ */
+public interface SnapshotCapable {
+
+    /**
+     * 지금 시점의 읽기 전용 뷰, 이후의 save 에 영향을 받지 않는다
+     * @throws IllegalStateException supportsSnapshot() 이 false 일 때
+     */
+    MemberSnapshot snapshot();
+
+    /**
+     * @return snapshot() 을 부를 수 있으면 true, 데코레이터는 감싼 저장소가 지원할 때만 true
+     */
+    default boolean supportsSnapshot() {
+        return true;
+    }
+
+    /**
+     * @return repository 에 snapshot() 을 부를 수 있으면 true
+     */
+    static boolean supports(MemberRepository repository) {
+        return repository instanceof SnapshotCapable && ((SnapshotCapable) repository).supportsSnapshot();
+    }
+
+    /**
+     * 데코레이터가 감싼 저장소의 스냅샷을 그대로 넘겨줄 때 쓴다
+     * @throws IllegalStateException 감싼 저장소가 스냅샷을 지원하지 않을 때 (supports 가 false)
+     */
+    static MemberSnapshot snapshotOf(MemberRepository delegate) {
+        if (!supports(delegate)) {
+            throw new IllegalStateException("스냅샷을 지원하지 않는 저장소를 감싸고 있습니다: " + delegate.getClass().getSimpleName());
+        }
+        return ((SnapshotCapable) delegate).snapshot();
+    }
+}
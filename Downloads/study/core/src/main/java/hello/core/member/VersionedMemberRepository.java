@@ -0,0 +1,235 @@
+package hello.core.member;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.OptionalLong;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 버전(MVCC)을 가진 저장소, 전체 조회(리포트)와 join 이 동시에 돌아도 서로 막지 않는다
+ *
+ * - 회원 id 마다 [최신 버전 -> 이전 버전 -> ...] 체인을 들고 있고, 저장할 때마다 전역 시계를 1 올린다
+ * - snapshot() 은 현재 시계 값만 기억하므로 O(1), 스냅샷 조회는 그 값 이하의 버전 중 가장 최신 것을 본다
+ * - 저장끼리는 직렬화하지만(버전 순서 보장) 조회 / 스냅샷 순회는 락이 없다
+ * - 열려있는 스냅샷 어느 것도 보지 않는 이전 버전은 저장할 때 체인에서 끊어낸다
+ *   (스냅샷이 닫힌 뒤에는, 그 회원이 다음에 다시 저장될 때 정리된다)
+ *
+ * 저장된 값을 밖에서 바꿀 수 없도록 저장 / 조회 모두 복사본을 쓴다.
+ */
+public class VersionedMemberRepository implements MemberRepository, SnapshotCapable {
+
+    private final Map<Long, Version> store = new ConcurrentHashMap<>();
+    private final Object writeLock = new Object();
+    private volatile long clock; // 마지막으로 저장이 끝난 버전, writeLock 안에서만 증가
+
+    // 열려있는 스냅샷 버전 -> 개수 (writeLock 으로 보호)
+    private final TreeMap<Long, Integer> activeSnapshots = new TreeMap<>();
+
+    @Override
+    public void save(Member member) {
+        synchronized (writeLock) {
+            long version = clock + 1;
+            install(member, version);
+            clock = version;
+        }
+    }
+
+    /**
+     * 배치 전체가 같은 버전으로 저장되므로 스냅샷에는 배치가 다 보이거나 하나도 안 보인다
+     */
+    @Override
+    public void saveAll(Collection<Member> members) {
+        synchronized (writeLock) {
+            long version = clock + 1;
+            for (Member member : members) {
+                install(member, version);
+            }
+            clock = version;
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        Version head = store.get(memberId);
+        return head == null ? null : copy(head.member);
+    }
+
+    @Override
+    public MemberSnapshot snapshot() {
+        long version;
+        synchronized (writeLock) {
+            version = clock;
+            activeSnapshots.merge(version, 1, Integer::sum);
+        }
+        return new Snapshot(version);
+    }
+
+    @Override
+    public OptionalLong maxId() {
+        return store.keySet().stream().mapToLong(Long::longValue).max();
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * @return 열려있는 스냅샷 수
+     */
+    public int activeSnapshotCount() {
+        synchronized (writeLock) {
+            int count = 0;
+            for (int snapshots : activeSnapshots.values()) {
+                count += snapshots;
+            }
+            return count;
+        }
+    }
+
+    /**
+     * @return 해당 회원이 들고 있는 버전 수 (정리가 잘 되는지 확인용)
+     */
+    int versionCount(long memberId) {
+        int count = 0;
+        for (Version v = store.get(memberId); v != null; v = v.previous) {
+            count++;
+        }
+        return count;
+    }
+
+    private void install(Member member, long version) {
+        Long id = member.getId();
+        Version head = new Version(version, copy(member), store.get(id));
+        store.put(id, head);
+        prune(head);
+    }
+
+    // 열려있는 스냅샷 중 어느 것도 보지 않는 이전 버전은 체인에서 뺀다
+    // (뺀 버전 자체의 previous 는 건드리지 않으므로 지금 체인을 따라가는 중인 조회도 안전하다)
+    private void prune(Version head) {
+        Version kept = head;
+        Version newer = head;
+        for (Version v = head.previous; v != null; v = v.previous) {
+            Long snapshot = activeSnapshots.ceilingKey(v.version);
+            if (snapshot != null && snapshot < newer.version) {
+                kept.previous = v;
+                kept = v;
+            }
+            newer = v;
+        }
+        kept.previous = null;
+    }
+
+    private void release(long version) {
+        synchronized (writeLock) {
+            activeSnapshots.computeIfPresent(version, (v, count) -> count == 1 ? null : count - 1);
+        }
+    }
+
+    private static Version visible(Version head, long version) {
+        Version v = head;
+        while (v != null && v.version > version) {
+            v = v.previous;
+        }
+        return v;
+    }
+
+    private static Member copy(Member member) {
+        return new Member(member.getId(), member.getName(), member.getGrade());
+    }
+
+    private static class Version {
+
+        final long version;
+        final Member member;
+        volatile Version previous; // 정리할 때 null 로 끊는다
+
+        Version(long version, Member member, Version previous) {
+            this.version = version;
+            this.member = member;
+            this.previous = previous;
+        }
+    }
+
+    private class Snapshot implements MemberSnapshot {
+
+        private final long version;
+        private volatile boolean closed;
+
+        Snapshot(long version) {
+            this.version = version;
+        }
+
+        @Override
+        public Member findById(long memberId) {
+            checkOpen();
+            Version v = visible(store.get(memberId), version);
+            return v == null ? null : copy(v.member);
+        }
+
+        @Override
+        public long version() {
+            return version;
+        }
+
+        /**
+         * 스냅샷 이후에 추가된 회원은 버전이 더 커서 걸러진다 (회원 삭제는 없으므로 누락도 없다)
+         */
+        @Override
+        public Iterator<Member> iterator() {
+            checkOpen();
+            Iterator<Version> heads = store.values().iterator();
+            return new Iterator<Member>() {
+
+                private Version next = advance();
+
+                private Version advance() {
+                    while (heads.hasNext()) {
+                        Version v = visible(heads.next(), version);
+                        if (v != null) {
+                            return v;
+                        }
+                    }
+                    return null;
+                }
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public Member next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    Member member = copy(next.member);
+                    next = advance();
+                    return member;
+                }
+            };
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                release(version);
+            }
+        }
+
+        private void checkOpen() {
+            if (closed) {
+                throw new IllegalStateException("이미 닫힌 스냅샷입니다");
+            }
+        }
+    }
+}
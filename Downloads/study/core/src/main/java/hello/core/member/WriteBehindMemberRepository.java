@@ -0,0 +1,430 @@
+package hello.core.member;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 느린(디스크) 저장소 앞에 두는 write-behind 저장소
+ *
+ * - save 는 메모리의 대기열에 넣고 바로 돌아온다 -> join 응답 시간에 디스크 I/O가 들어가지 않는다
+ * - 백그라운드 스레드가 대기열을 batchSize 단위로 꺼내 delegate.saveAll 로 저장한다
+ * - 같은 id를 여러 번 저장하면 대기열에서 마지막 값 하나로 합쳐진다 (coalescing)
+ * - 대기열이 queueCapacity 만큼 차면 새 id의 save 는 자리가 날 때까지 기다린다 (backpressure)
+ * - 조회는 대기열 -> 저장 중인 배치 -> delegate 순서로 찾으므로 방금 저장한 회원도 바로 보인다
+ *
+ * close(@PreDestroy) 는 대기열을 모두 저장한 뒤에 돌아오므로, save 가 끝난 회원은 정상 종료 시 유실되지 않는다.
+ * 감싼 저장소가 AutoCloseable 이면 같이 닫는다.
+ *
+ * delegate 저장이 maxRetries 번 연달아 실패하거나 Error 가 나면 백그라운드 스레드는 멈추고 저장소는 실패 상태가 된다.
+ * 이후 save / flush / close 는 그 원인을 담은 IllegalStateException 을 던진다 (기다리다 멈추지 않는다).
+ * 저장하지 못한 회원은 대기열에 남아 있어 조회는 계속 된다.
+ */
+public class WriteBehindMemberRepository implements MemberRepository, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindMemberRepository.class);
+
+    private final MemberRepository delegate;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long retryDelayMillis;
+    private final int maxRetries;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition flushed = lock.newCondition();
+
+    // 아래 상태는 모두 lock 으로 보호
+    private final LinkedHashMap<Long, Member> pending = new LinkedHashMap<>();
+    private Map<Long, Member> inFlight = Map.of();
+    private boolean closed;
+    private long coalescedCount;
+    private long writtenCount;
+    private long batchCount;
+    private long failureCount;
+    private Throwable failure; // null 이 아니면 백그라운드 스레드가 멈춘 상태
+
+    private final Thread writer;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30;
+
+    public WriteBehindMemberRepository(MemberRepository delegate) {
+        this(delegate, 10_000, 500, 100);
+    }
+
+    // 재시도는 최대 50번 (기본 100ms 간격이면 5초)
+    public WriteBehindMemberRepository(MemberRepository delegate, int queueCapacity, int batchSize, long retryDelayMillis) {
+        this(delegate, queueCapacity, batchSize, retryDelayMillis, 50);
+    }
+
+    /**
+     * @param queueCapacity    저장 대기 중인 회원(id) 최대 수, 넘으면 save 가 기다린다
+     * @param batchSize        한 번의 delegate.saveAll 로 저장할 최대 회원 수
+     * @param retryDelayMillis delegate 저장이 실패했을 때 다시 시도하기 전까지 기다리는 시간
+     * @param maxRetries       같은 배치를 연달아 다시 시도하는 최대 횟수, 넘으면 실패 상태가 된다
+     */
+    public WriteBehindMemberRepository(MemberRepository delegate, int queueCapacity, int batchSize,
+                                       long retryDelayMillis, int maxRetries) {
+        if (queueCapacity <= 0 || batchSize <= 0) {
+            throw new IllegalArgumentException("queueCapacity, batchSize 는 0보다 커야 합니다");
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries 는 0 이상이어야 합니다: " + maxRetries);
+        }
+        this.delegate = delegate;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.retryDelayMillis = retryDelayMillis;
+        this.maxRetries = maxRetries;
+        this.writer = new Thread(this::writeLoop, "member-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void save(Member member) {
+        lock.lock();
+        try {
+            enqueue(member);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Member> members) {
+        lock.lock();
+        try {
+            for (Member member : members) {
+                enqueue(member);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Member findById(Long memberId) {
+        return memberId == null ? null : findById(memberId.longValue());
+    }
+
+    @Override
+    public Member findById(long memberId) {
+        Long key = memberId;
+        lock.lock();
+        try {
+            Member member = pending.get(key);
+            if (member == null) {
+                member = inFlight.get(key);
+            }
+            if (member != null) {
+                return member;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return delegate.findById(memberId);
+    }
+
+    // 아직 기록되지 않은 회원도 센다, 대기열을 먼저 읽어야 그 사이에 기록된 회원이 양쪽에서 빠지지 않는다
+    @Override
+    public OptionalLong maxId() {
+        long max = Long.MIN_VALUE;
+        boolean found = false;
+        lock.lock();
+        try {
+            for (Map<Long, Member> members : List.of(pending, inFlight)) {
+                for (Long id : members.keySet()) {
+                    max = Math.max(max, id);
+                    found = true;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        OptionalLong stored = delegate.maxId();
+        if (stored.isPresent()) {
+            return OptionalLong.of(Math.max(max, stored.getAsLong()));
+        }
+        return found ? OptionalLong.of(max) : OptionalLong.empty();
+    }
+
+    /**
+     * 지금까지 save 된 회원이 모두 delegate 에 저장될 때까지 기다린다
+     * @throws IllegalStateException 저장소가 실패 상태가 되어 더 저장할 수 없을 때
+     */
+    public void flush() {
+        lock.lock();
+        try {
+            while ((!pending.isEmpty() || !inFlight.isEmpty()) && failure == null) {
+                flushed.awaitUninterruptibly();
+            }
+            checkNotFailed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 새 save 를 막고, 대기열을 모두 저장한 뒤 백그라운드 스레드를 끝낸다 (최대 CLOSE_TIMEOUT_SECONDS 초 기다린다)
+     * @throws IllegalStateException 대기열을 모두 저장하지 못했을 때 (실패 상태, 시간 초과, 인터럽트)
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            awaitWriter();
+        } finally {
+            closeDelegate();
+        }
+    }
+
+    private void awaitWriter() {
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(CLOSE_TIMEOUT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("대기열 저장을 기다리다 인터럽트됨, 저장 안 된 회원 " + pendingCount() + "명", e);
+        }
+        if (writer.isAlive()) {
+            throw new IllegalStateException(CLOSE_TIMEOUT_SECONDS + "초 안에 대기열을 저장하지 못함, 저장 안 된 회원 " + pendingCount() + "명");
+        }
+        lock.lock();
+        try {
+            checkNotFailed();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void closeDelegate() {
+        if (!(delegate instanceof AutoCloseable)) {
+            return;
+        }
+        try {
+            ((AutoCloseable) delegate).close();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IllegalStateException("감싼 저장소 종료 실패", e);
+        }
+    }
+
+    public int pendingCount() {
+        lock.lock();
+        try {
+            return pending.size() + inFlight.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 대기열에서 이전 값을 덮어써서 delegate 저장을 아낀 횟수
+     */
+    public long coalescedCount() {
+        lock.lock();
+        try {
+            return coalescedCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long writtenCount() {
+        lock.lock();
+        try {
+            return writtenCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long batchCount() {
+        lock.lock();
+        try {
+            return batchCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long failureCount() {
+        lock.lock();
+        try {
+            return failureCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return 백그라운드 저장을 멈추게 한 원인, 정상이면 null
+     */
+    public Throwable failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkNotFailed() {
+        if (failure != null) {
+            throw new IllegalStateException("회원 write-behind 저장 중단, 저장 안 된 회원 "
+                    + (pending.size() + inFlight.size()) + "명", failure);
+        }
+    }
+
+    private void enqueue(Member member) {
+        Long key = member.getId();
+        while (!closed && failure == null && pending.size() >= queueCapacity && !pending.containsKey(key)) {
+            notFull.awaitUninterruptibly();
+        }
+        checkNotFailed();
+        if (closed) {
+            throw new IllegalStateException("종료된 저장소입니다");
+        }
+        if (pending.put(key, member) != null) {
+            coalescedCount++;
+        } else if (pending.size() == 1) {
+            notEmpty.signal();
+        }
+    }
+
+    private void writeLoop() {
+        int retries = 0;
+        while (true) {
+            List<Member> batch;
+            lock.lock();
+            try {
+                while (pending.isEmpty() && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (pending.isEmpty()) {
+                    return; // closed 이고 더 저장할 것이 없다
+                }
+                batch = takeBatch();
+            } finally {
+                lock.unlock();
+            }
+
+            RuntimeException error;
+            try {
+                error = write(batch);
+            } catch (Error e) {
+                fail(e); // 스레드가 죽기 전에 기다리는 쪽을 깨운다
+                throw e;
+            }
+
+            if (error != null && retries++ >= maxRetries) {
+                fail(error);
+                return;
+            }
+            lock.lock();
+            try {
+                if (error == null) {
+                    writtenCount += batch.size();
+                    batchCount++;
+                    retries = 0;
+                } else {
+                    requeueInFlight();
+                    failureCount++;
+                }
+                inFlight = Map.of();
+                flushed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (error != null && !sleepBeforeRetry()) {
+                // 인터럽트된 채로 재시도하면 sleep 이 바로 끝나서 maxRetries 를 순식간에 다 써버린다 -> 여기서 멈춘다
+                fail(new IllegalStateException("회원 write-behind 재시도 대기 중 인터럽트됨", error));
+                return;
+            }
+        }
+    }
+
+    // 실패한 배치는 다시 대기열 앞으로, 그 사이에 새로 저장된 값이 있으면 그쪽이 우선
+    private void requeueInFlight() {
+        LinkedHashMap<Long, Member> retry = new LinkedHashMap<>(inFlight);
+        retry.putAll(pending);
+        pending.clear();
+        pending.putAll(retry);
+    }
+
+    private void fail(Throwable cause) {
+        log.error("회원 write-behind 저장 중단, 이후 save / flush 는 예외", cause);
+        lock.lock();
+        try {
+            requeueInFlight();
+            inFlight = Map.of();
+            failureCount++;
+            failure = cause;
+            notFull.signalAll();
+            flushed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private List<Member> takeBatch() {
+        List<Member> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+        Map<Long, Member> taken = new LinkedHashMap<>();
+        Iterator<Map.Entry<Long, Member>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && batch.size() < batchSize) {
+            Map.Entry<Long, Member> entry = iterator.next();
+            batch.add(entry.getValue());
+            taken.put(entry.getKey(), entry.getValue());
+            iterator.remove();
+        }
+        inFlight = taken;
+        notFull.signalAll();
+        return batch;
+    }
+
+    // @return 실패 원인, 성공하면 null
+    private RuntimeException write(List<Member> batch) {
+        try {
+            delegate.saveAll(batch);
+            return null;
+        } catch (RuntimeException e) {
+            log.warn("회원 write-behind 저장 실패, {}ms 후 재시도 (회원 {}명)", retryDelayMillis, batch.size(), e);
+            return e;
+        }
+    }
+
+    // @return 인터럽트되면 false (인터럽트 상태는 되살려둔다)
+    private boolean sleepBeforeRetry() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(retryDelayMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
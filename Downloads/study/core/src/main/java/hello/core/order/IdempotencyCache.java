@@ -0,0 +1,199 @@
+package hello.core.order;
+
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 멱등 키(idempotency key) -> 주문 결과 캐시, 클라이언트 재시도로 같은 주문이 여러 번 계산/기록되지 않게 한다
+ *
+ * - single-flight : 같은 키로 동시에 들어온 요청은 처음 요청의 계산이 끝날 때까지 기다렸다가 그 결과를 같이 받는다
+ * - 만료 : 계산이 끝난 뒤 ttl 이 지나면 다시 계산한다
+ * - 크기 제한 : 최대 maxEntries 개, 넘치면 먼저 들어온 키부터 버린다
+ *   ttl 이 모두 같아서 들어온 순서 = 만료 순서이므로, 큐 하나로 만료와 크기 제한을 같이 처리한다
+ *   계산 중인 키는 버리지 않는다 (버리면 중복 요청이 다시 계산한다) -> 계산 중인 요청 수만큼 잠깐 한도를 넘을 수 있다
+ * - 계산이 예외로 끝나면 기다리던 요청에도 같은 예외를 던지고 키를 지운다 (재시도하면 다시 계산)
+ *
+ * 같은 키로 다른 내용(회원, 상품, 가격)의 주문이 들어오면 IllegalArgumentException
+ */
+public class IdempotencyCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = 100_000;
+    private static final long DEFAULT_TTL_MINUTES = 10;
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder waitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    public IdempotencyCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    public IdempotencyCache(int maxEntries, long ttl, TimeUnit unit) {
+        this(maxEntries, unit.toNanos(ttl), System::nanoTime);
+    }
+
+    // 테스트에서 시간을 흘려보내기 위한 생성자
+    IdempotencyCache(int maxEntries, long ttlNanos, LongSupplier clock) {
+        if (maxEntries <= 0 || ttlNanos <= 0) {
+            throw new IllegalArgumentException("maxEntries, ttl 은 0보다 커야 합니다");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.clock = clock;
+    }
+
+    /**
+     * 키에 대한 주문을 돌려준다, 처음 보는(또는 만료된) 키면 호출한 스레드에서 createOrder 를 실행한다
+     * Order 는 가변이라 호출마다 복사본을 돌려준다
+     */
+    public Order getOrCreate(String key, Long memberId, String itemName, int itemPrice, Supplier<Order> createOrder) {
+        Objects.requireNonNull(key, "idempotencyKey");
+        while (true) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.isExpired(clock.getAsLong())) {
+                entries.remove(key, entry);
+                continue;
+            }
+            if (entry == null) {
+                Entry created = new Entry(key, memberId, itemName, itemPrice);
+                entry = entries.putIfAbsent(key, created);
+                if (entry == null) {
+                    missCount.increment();
+                    evictOverflow();
+                    insertionOrder.add(created);
+                    return copy(compute(created, createOrder));
+                }
+            }
+            entry.checkSameRequest(memberId, itemName, itemPrice);
+            if (entry.result.isDone()) {
+                hitCount.increment();
+            } else {
+                waitCount.increment();
+            }
+            try {
+                return copy(entry.result.join());
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /** @return 완료된 결과를 바로 돌려준 횟수 */
+    public long hitCount() {
+        return hitCount.sum();
+    }
+
+    /** @return 같은 키의 계산이 진행 중이라 기다렸다가 결과를 받은 횟수 */
+    public long waitCount() {
+        return waitCount.sum();
+    }
+
+    /** @return 실제로 주문을 계산한 횟수 */
+    public long missCount() {
+        return missCount.sum();
+    }
+
+    public long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    private Order compute(Entry entry, Supplier<Order> createOrder) {
+        try {
+            Order order = createOrder.get();
+            entry.expiresAt = clock.getAsLong() + ttlNanos;
+            entry.result.complete(order);
+            return order;
+        } catch (RuntimeException | Error e) {
+            entries.remove(entry.key, entry);
+            entry.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    // 앞에서부터 만료된 키, 한도를 넘는 키를 버린다 (이미 교체/삭제된 키는 큐에서만 빠진다)
+    // 계산 중인 키는 건너뛴다, iterator.remove 는 해당 노드만 비우므로 O(1)
+    private void evictOverflow() {
+        long now = clock.getAsLong();
+        Iterator<Entry> iterator = insertionOrder.iterator();
+        while (iterator.hasNext()) {
+            Entry entry = iterator.next();
+            if (entries.get(entry.key) != entry) {
+                iterator.remove();
+                continue;
+            }
+            if (!entry.isExpired(now) && entries.size() <= maxEntries) {
+                return;
+            }
+            if (!entry.result.isDone()) {
+                continue;
+            }
+            iterator.remove();
+            if (entries.remove(entry.key, entry)) {
+                evictionCount.increment();
+            }
+        }
+    }
+
+    private static Order copy(Order order) {
+        return new Order(order.getMemberId(), order.getItemName(), order.getItemPrice(), order.getDiscountPrice());
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    private static final class Entry {
+
+        final String key;
+        final Long memberId;
+        final String itemName;
+        final int itemPrice;
+        final CompletableFuture<Order> result = new CompletableFuture<>();
+        volatile long expiresAt = Long.MAX_VALUE; // 계산 중에는 만료되지 않는다
+
+        Entry(String key, Long memberId, String itemName, int itemPrice) {
+            this.key = key;
+            this.memberId = memberId;
+            this.itemName = itemName;
+            this.itemPrice = itemPrice;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+        }
+
+        void checkSameRequest(Long memberId, String itemName, int itemPrice) {
+            if (!Objects.equals(this.memberId, memberId) || !Objects.equals(this.itemName, itemName)
+                    || this.itemPrice != itemPrice) {
+                throw new IllegalArgumentException("같은 멱등 키로 다른 주문이 들어왔습니다: " + key);
+            }
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package hello.core.order;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 주문을 덧붙이기 전용(append-only) 바이너리 저널 파일에 기록하는 저장소
+ *
+ * 주문 레코드(orders.journal, 고정 25byte) : [회원 있음 byte][회원 id long][상품명 번호 int][가격 int][할인 int][crc32 int]
+ * 회원 id 는 long 전체가 유효한 값이라 null 은 따로 표시한다 (회원 있음 = 0 이면 id 자리는 0)
+ * 상품명 사전(items.journal) : [길이 int][UTF-8] 반복, 레코드에는 사전 번호만 저장한다
+ *
+ * group commit : 동시에 들어온 save 들은 메모리 버퍼에 모였다가, 먼저 온 스레드(리더) 하나가
+ * FileChannel.write 한 번 + force 한 번으로 묶어서 기록한다. 나머지는 자기 레코드가 기록될 때까지 기다린다.
+ * save 가 돌아오면 그 주문은 디스크에 있다 (forceOnCommit = false 면 OS 버퍼까지만).
+ *
+ * 시작할 때는 주문 객체를 만들지 않고 crc만 확인하면서 건수를 센다. 쓰다가 죽어서 잘린 꼬리 레코드는 잘라낸다.
+ */
+public class JournalOrderRepository implements OrderRepository, Closeable {
+
+    static final String ORDERS_FILE = "orders.journal";
+    static final String ITEMS_FILE = "items.journal";
+    static final int RECORD_SIZE = 1 + Long.BYTES + Integer.BYTES * 4;
+
+    private static final byte MEMBER_ABSENT = 0;
+    private static final byte MEMBER_PRESENT = 1;
+    private static final int NULL_ITEM = -1;
+    private static final int READ_CHUNK = 1024 * 1024;
+
+    private final Path directory;
+    private final boolean forceOnCommit;
+    private final FileChannel ordersChannel;
+    private final FileChannel itemsChannel;
+
+    // 아래 상태는 lock 으로 보호
+    private final Object lock = new Object();
+    private final Map<String, Integer> itemRefs = new HashMap<>();
+    private final List<String> items = new ArrayList<>();
+    private final CRC32 crc = new CRC32();
+    private ByteBuffer pendingOrders = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer pendingItems = ByteBuffer.allocate(4 * 1024);
+    private ByteBuffer spareOrders = ByteBuffer.allocate(64 * 1024);
+    private ByteBuffer spareItems = ByteBuffer.allocate(4 * 1024);
+    private long appendedSeq;
+    private long durableSeq;
+    private boolean flushing;
+    private long ordersPosition; // 기록이 끝난 주문 파일 길이
+    private long itemsPosition;
+    private long count;
+    private long commitCount;
+    private boolean closed;
+
+    public JournalOrderRepository(Path directory) {
+        this(directory, true);
+    }
+
+    /**
+     * @param forceOnCommit true 면 commit 마다 force(fsync) 한다, false 면 OS 페이지 캐시까지만 쓰고 돌아온다
+     */
+    public JournalOrderRepository(Path directory, boolean forceOnCommit) {
+        this.directory = directory;
+        this.forceOnCommit = forceOnCommit;
+        try {
+            Files.createDirectories(directory);
+            itemsChannel = FileChannel.open(directory.resolve(ITEMS_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            ordersChannel = FileChannel.open(directory.resolve(ORDERS_FILE),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            replayItems();
+            replayOrders();
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 저널 복구 실패: " + directory, e);
+        }
+    }
+
+    @Override
+    public void save(Order order) {
+        long seq;
+        synchronized (lock) {
+            ensureOpen();
+            append(order);
+            seq = ++appendedSeq;
+        }
+        commit(seq);
+    }
+
+    @Override
+    public void saveAll(List<Order> orders) {
+        long seq;
+        synchronized (lock) {
+            ensureOpen();
+            for (Order order : orders) {
+                append(order);
+            }
+            seq = appendedSeq += orders.size();
+        }
+        commit(seq);
+    }
+
+    @Override
+    public long count() {
+        synchronized (lock) {
+            return count;
+        }
+    }
+
+    /**
+     * @return 파일 기록(write + force) 횟수, 동시에 저장할수록 count 보다 훨씬 작아진다
+     */
+    public long commitCount() {
+        synchronized (lock) {
+            return commitCount;
+        }
+    }
+
+    /**
+     * 기록이 끝난 주문만 파일에서 읽어서 넘겨준다 (읽는 동안 저장을 막지 않는다)
+     */
+    @Override
+    public void forEach(Consumer<Order> action) {
+        long end;
+        String[] names;
+        synchronized (lock) {
+            ensureOpen();
+            end = ordersPosition;
+            names = items.toArray(new String[0]);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(READ_CHUNK - READ_CHUNK % RECORD_SIZE);
+        try {
+            for (long position = 0; position < end; ) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                while (buffer.hasRemaining()) {
+                    if (ordersChannel.read(buffer, position + buffer.position()) < 0) {
+                        throw new IOException("주문 저널이 예상보다 짧습니다");
+                    }
+                }
+                buffer.flip();
+                position += buffer.remaining();
+                while (buffer.hasRemaining()) {
+                    action.accept(decode(buffer, names));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("주문 저널 읽기 실패: " + directory, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+        }
+        commit(Long.MAX_VALUE);
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                ordersChannel.close();
+                itemsChannel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void append(Order order) {
+        int itemRef = itemRef(order.getItemName());
+        pendingOrders = ensureCapacity(pendingOrders, RECORD_SIZE);
+        int start = pendingOrders.position();
+        Long memberId = order.getMemberId();
+        pendingOrders.put(memberId == null ? MEMBER_ABSENT : MEMBER_PRESENT);
+        pendingOrders.putLong(memberId == null ? 0 : memberId);
+        pendingOrders.putInt(itemRef);
+        pendingOrders.putInt(order.getItemPrice());
+        pendingOrders.putInt(order.getDiscountPrice());
+        crc.reset();
+        crc.update(pendingOrders.array(), start, RECORD_SIZE - Integer.BYTES);
+        pendingOrders.putInt((int) crc.getValue());
+        count++;
+    }
+
+    private int itemRef(String itemName) {
+        if (itemName == null) {
+            return NULL_ITEM;
+        }
+        Integer ref = itemRefs.get(itemName);
+        if (ref != null) {
+            return ref;
+        }
+        byte[] bytes = itemName.getBytes(StandardCharsets.UTF_8);
+        pendingItems = ensureCapacity(pendingItems, Integer.BYTES + bytes.length);
+        pendingItems.putInt(bytes.length).put(bytes);
+        ref = items.size();
+        items.add(itemName);
+        itemRefs.put(itemName, ref);
+        return ref;
+    }
+
+    // 리더 하나가 그때까지 쌓인 버퍼를 통째로 기록한다. 기록하는 동안에도 다른 스레드는 새 버퍼에 계속 쌓는다
+    private void commit(long seq) {
+        while (true) {
+            ByteBuffer orders;
+            ByteBuffer newItems;
+            long ordersAt;
+            long itemsAt;
+            long target;
+            synchronized (lock) {
+                while (flushing && durableSeq < seq) {
+                    waitForLeader();
+                }
+                if (durableSeq >= seq || durableSeq == appendedSeq) {
+                    return;
+                }
+                ensureOpen(); // 앞선 기록이 실패해서 닫혔으면 여기서 실패
+                flushing = true;
+                target = appendedSeq;
+                orders = pendingOrders;
+                newItems = pendingItems;
+                pendingOrders = spareOrders;
+                pendingItems = spareItems;
+                ordersAt = ordersPosition;
+                itemsAt = itemsPosition;
+            }
+
+            IOException failure = null;
+            try {
+                // 상품명 사전을 먼저 기록해야 주문 레코드가 없는 번호를 가리키지 않는다
+                write(itemsChannel, newItems, itemsAt);
+                write(ordersChannel, orders, ordersAt);
+                if (forceOnCommit) {
+                    itemsChannel.force(false);
+                    ordersChannel.force(false);
+                }
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            synchronized (lock) {
+                flushing = false;
+                lock.notifyAll();
+                if (failure != null) {
+                    closed = true; // 어디까지 기록됐는지 알 수 없으므로 더 이상 쓰지 않는다
+                    throw new UncheckedIOException("주문 저널 기록 실패: " + directory, failure);
+                }
+                ordersPosition = ordersAt + orders.limit();
+                itemsPosition = itemsAt + newItems.limit();
+                spareOrders = orders.clear();
+                spareItems = newItems.clear();
+                durableSeq = target;
+                commitCount++;
+            }
+        }
+    }
+
+    private void waitForLeader() {
+        try {
+            lock.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("주문 저널 기록 대기 중 인터럽트", e);
+        }
+    }
+
+    private void write(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void replayItems() throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(directory.resolve(ITEMS_FILE)));
+        while (buffer.remaining() >= Integer.BYTES) {
+            int length = buffer.getInt(buffer.position());
+            if (length < 0 || buffer.remaining() < Integer.BYTES + length) {
+                break; // 잘린 꼬리
+            }
+            buffer.getInt();
+            String item = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+            buffer.position(buffer.position() + length);
+            itemRefs.put(item, items.size());
+            items.add(item);
+        }
+        itemsPosition = buffer.position();
+        itemsChannel.truncate(itemsPosition);
+    }
+
+    // 주문 객체는 만들지 않고 direct buffer 위에서 crc만 확인하며 건수를 센다
+    private void replayOrders() throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(READ_CHUNK - READ_CHUNK % RECORD_SIZE);
+        CRC32 check = new CRC32();
+        long position = 0;
+        long size = ordersChannel.size();
+        replay:
+        while (position + RECORD_SIZE <= size) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), (size - position) / RECORD_SIZE * RECORD_SIZE));
+            while (buffer.hasRemaining()) {
+                if (ordersChannel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            buffer.flip();
+            int end = buffer.limit() - buffer.limit() % RECORD_SIZE;
+            for (int start = 0; start < end; start += RECORD_SIZE) {
+                byte member = buffer.get(start);
+                int itemRef = buffer.getInt(start + 1 + Long.BYTES);
+                int stored = buffer.getInt(start + RECORD_SIZE - Integer.BYTES);
+                check.reset();
+                buffer.limit(start + RECORD_SIZE - Integer.BYTES).position(start);
+                check.update(buffer);
+                buffer.limit(end);
+                if (stored != (int) check.getValue() || (member != MEMBER_ABSENT && member != MEMBER_PRESENT)
+                        || itemRef < NULL_ITEM || itemRef >= items.size()) {
+                    break replay; // 쓰다가 죽은 레코드 -> 여기가 끝
+                }
+                position += RECORD_SIZE;
+                count++;
+            }
+        }
+        ordersPosition = position;
+        ordersChannel.truncate(ordersPosition);
+        appendedSeq = durableSeq = count;
+    }
+
+    private Order decode(ByteBuffer buffer, String[] names) {
+        boolean hasMember = buffer.get() == MEMBER_PRESENT;
+        long memberId = buffer.getLong();
+        int itemRef = buffer.getInt();
+        int itemPrice = buffer.getInt();
+        int discountPrice = buffer.getInt();
+        buffer.getInt(); // crc 는 시작할 때 확인했다
+        return new Order(hasMember ? memberId : null,
+                itemRef == NULL_ITEM ? null : names[itemRef], itemPrice, discountPrice);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("닫힌 주문 저장소입니다: " + directory);
+        }
+    }
+
+    private static ByteBuffer ensureCapacity(ByteBuffer buffer, int required) {
+        if (buffer.remaining() >= required) {
+            return buffer;
+        }
+        ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + required));
+        buffer.flip();
+        return grown.put(buffer);
+    }
+}
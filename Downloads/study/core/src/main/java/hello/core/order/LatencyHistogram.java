@@ -0,0 +1,88 @@
+package hello.core.order;
+
+import java.util.Arrays;
+
+/**
+ * 지연시간(나노초) 분포 기록기, 값 크기에 따라 구간 폭이 커지는 로그-선형 버킷 (오차 약 3% 이내)
+ *
+ * record 는 할당이 없고 한 스레드(파이프라인 마지막 단계)만 호출한다.
+ * 다른 스레드에서 읽을 때는 파이프라인이 멈췄거나 drain 된 뒤에 읽어야 정확하다.
+ */
+public class LatencyHistogram {
+
+    private static final int LINEAR_LIMIT = 64; // 이 값 미만은 1ns 단위로 정확히 센다
+    private static final int SUB_BUCKETS = 32;
+    private static final int BUCKETS = LINEAR_LIMIT + 58 * SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long count;
+    private long max;
+
+    public void record(long nanos) {
+        long value = Math.max(nanos, 0);
+        counts[indexOf(value)]++;
+        count++;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    /**
+     * @param percentile 0 ~ 100 (예: 99.9)
+     * @return 해당 백분위 지연시간(나노초), 기록이 없으면 0
+     */
+    public long percentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int index = 0; index < BUCKETS; index++) {
+            seen += counts[index];
+            if (seen >= target) {
+                return Math.min(upperBound(index), max);
+            }
+        }
+        return max;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        max = 0;
+    }
+
+    /**
+     * @return "p50=..us p99=..us p99.9=..us max=..us" 형식 요약
+     */
+    public String summary() {
+        return String.format("count=%,d p50=%,.1fus p99=%,.1fus p99.9=%,.1fus max=%,.1fus",
+                count, percentile(50) / 1e3, percentile(99) / 1e3, percentile(99.9) / 1e3, max / 1e3);
+    }
+
+    private static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - 6; // 상위 6비트(32 ~ 63)만 남긴다
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+}
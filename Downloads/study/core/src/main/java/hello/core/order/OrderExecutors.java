@@ -0,0 +1,72 @@
+package hello.core.order;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 비동기 주문 처리(createOrderAsync) 전용 executor
+ *
+ * JVM이 가상 스레드를 지원하면(Java 21+) 주문마다 가상 스레드 하나를 쓰고,
+ * 아니면 platformThreads 개의 데몬 스레드 풀을 쓴다. 소스 레벨이 11이라 가상 스레드 API는 리플렉션으로 찾는다.
+ */
+public final class OrderExecutors {
+
+    private static final int DEFAULT_PLATFORM_THREADS = 64;
+
+    private OrderExecutors() {
+    }
+
+    public static ExecutorService create() {
+        return create(DEFAULT_PLATFORM_THREADS);
+    }
+
+    /**
+     * @param platformThreads 가상 스레드를 쓸 수 없을 때 만들 스레드 수
+     */
+    public static ExecutorService create(int platformThreads) {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        return virtual != null ? virtual : newPlatformExecutor(platformThreads);
+    }
+
+    public static boolean virtualThreadsSupported() {
+        ExecutorService virtual = newVirtualThreadExecutor();
+        if (virtual == null) {
+            return false;
+        }
+        virtual.shutdown();
+        return true;
+    }
+
+    /**
+     * OrderServiceImpl 에 executor 를 따로 주지 않았을 때 쓰는 공용 executor (처음 쓸 때 만든다)
+     */
+    static ExecutorService shared() {
+        return SharedHolder.EXECUTOR;
+    }
+
+    static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "order-async-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            return null; // Java 21 미만이거나 preview 기능으로만 있는 JVM
+        }
+    }
+
+    private static class SharedHolder {
+        static final ExecutorService EXECUTOR = create();
+    }
+}
@@ -0,0 +1,317 @@
+package hello.core.order;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 주문 폭주를 흡수하는 링 버퍼 파이프라인 (disruptor 방식)
+ *
+ * 생산자(한 스레드) -> [회원 조회] -> [할인 계산] -> [기록] 순서로 단계마다 스레드 하나가 처리한다.
+ * - 슬롯(OrderEvent)은 미리 만들어두고 재사용한다 -> publish 는 주문마다 객체를 할당하지 않는다
+ * - 단계끼리는 큐 없이 순번(Sequence)만 주고받고, 앞 단계가 처리한 순번까지 한꺼번에(batch) 처리한다
+ * - 기록 단계는 한 번에 처리한 묶음을 OrderRepository.saveAll 한 번으로 저장한다 (저널이면 group commit 한 번)
+ * - 링이 가득 차면 publish 가 자리가 날 때까지 기다린다 (backpressure, 단계와 같은 WaitStrategy 로 기다린다)
+ * - 단계 스레드가 Error 로 죽으면 파이프라인을 멈추고, 이후 publish / drain / close 는 그 원인을 담은 IllegalStateException 을 던진다
+ *
+ * publish 는 처음 호출한 스레드만 호출할 수 있다 (single writer).
+ * 마지막 단계에서 publish -> 기록 완료까지의 지연시간을 latency() 에 기록한다.
+ */
+public class OrderPipeline implements AutoCloseable {
+
+    private final MemberRepository memberRepository;
+    private final DiscountPolicy discountPolicy;
+    private final OrderRepository orderRepository; // null 이면 기록 단계는 지연시간만 기록한다
+    private final WaitStrategy waitStrategy;
+
+    private final OrderEvent[] ring;
+    private final int mask;
+
+    private final Sequence cursor = new Sequence(-1); // 생산자가 publish 한 마지막 순번
+    private final Stage[] stages;
+    private final Thread[] threads;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final AtomicLong failureCount = new AtomicLong();
+
+    private Thread producer;
+    private long nextSequence; // 생산자 전용
+    private long cachedGate = -1; // 생산자 전용, 마지막 단계 순번을 매번 volatile 로 읽지 않도록
+    private volatile boolean halted; // close 또는 단계 스레드가 죽으면 true
+    private volatile boolean closed;
+    private volatile Throwable stageFailure; // 단계 스레드를 죽인 원인
+    private final BooleanSupplier haltedCheck = () -> halted; // 대기 루프마다 람다를 새로 만들지 않도록
+
+    /**
+     * @param bufferSize 슬롯 수 (2의 거듭제곱)
+     */
+    public OrderPipeline(MemberRepository memberRepository, DiscountPolicy discountPolicy,
+                         OrderRepository orderRepository, int bufferSize, WaitStrategy waitStrategy) {
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize 는 2의 거듭제곱이어야 합니다: " + bufferSize);
+        }
+        this.memberRepository = memberRepository;
+        this.discountPolicy = discountPolicy;
+        this.orderRepository = orderRepository;
+        this.waitStrategy = waitStrategy;
+        this.ring = new OrderEvent[bufferSize];
+        this.mask = bufferSize - 1;
+        for (int i = 0; i < bufferSize; i++) {
+            ring[i] = new OrderEvent();
+        }
+
+        Stage resolveMember = new Stage(cursor) {
+            @Override
+            void onEvent(OrderEvent event, boolean endOfBatch) {
+                event.member = memberRepository.findById(event.memberId);
+            }
+        };
+        Stage discount = new Stage(resolveMember.sequence) {
+            @Override
+            void onEvent(OrderEvent event, boolean endOfBatch) {
+                event.discountPrice = discountPolicy.discount(event.member, event.itemPrice);
+            }
+        };
+        Stage journal = new JournalStage(discount.sequence);
+        this.stages = new Stage[]{resolveMember, discount, journal};
+
+        String[] names = {"order-pipeline-member", "order-pipeline-discount", "order-pipeline-journal"};
+        this.threads = new Thread[stages.length];
+        for (int i = 0; i < stages.length; i++) {
+            threads[i] = new Thread(stages[i], names[i]);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+    }
+
+    /**
+     * 주문 하나를 파이프라인에 넣는다, 할당 없이 빈 슬롯에 값만 복사한다
+     * @throws IllegalStateException close 이후, 또는 단계 스레드가 죽은 뒤 (링에 자리가 있어도 받지 않는다)
+     */
+    public void publish(long memberId, String itemName, int itemPrice) {
+        if (halted || closed) {
+            throw haltedException();
+        }
+        checkProducer();
+        long sequence = nextSequence++;
+        long wrapPoint = sequence - ring.length;
+        if (wrapPoint > cachedGate) {
+            // 링이 가득 참 -> 마지막 단계가 따라올 때까지 기다린다
+            Sequence gate = stages[stages.length - 1].sequence;
+            while (wrapPoint > (cachedGate = waitStrategy.waitFor(wrapPoint, gate, haltedCheck))) {
+                if (halted) {
+                    nextSequence--;
+                    throw haltedException();
+                }
+            }
+        }
+        OrderEvent event = ring[(int) sequence & mask];
+        event.memberId = memberId;
+        event.itemName = itemName;
+        event.itemPrice = itemPrice;
+        event.member = null;
+        event.discountPrice = 0;
+        event.publishNanos = System.nanoTime();
+        cursor.set(sequence);
+        waitStrategy.signalAll();
+    }
+
+    /**
+     * 지금까지 publish 된 주문이 모두 기록될 때까지 기다린다
+     * @throws IllegalStateException 단계 스레드가 죽어서 더 처리할 수 없을 때
+     */
+    public void drain() {
+        long target = cursor.get();
+        Sequence last = stages[stages.length - 1].sequence;
+        while (waitStrategy.waitFor(target, last, haltedCheck) < target) {
+            if (halted || Thread.currentThread().isInterrupted()) {
+                break;
+            }
+        }
+        if (stageFailure != null) {
+            throw haltedException();
+        }
+    }
+
+    /**
+     * 마지막 단계가 기록하는 지연시간 분포, drain() 또는 close() 이후에 읽는다
+     */
+    public LatencyHistogram latency() {
+        return latency;
+    }
+
+    /**
+     * @return 단계 처리 중 예외가 난 주문 수 (해당 주문은 기록되지 않는다)
+     */
+    public long failureCount() {
+        return failureCount.get();
+    }
+
+    public int bufferSize() {
+        return ring.length;
+    }
+
+    /**
+     * 남은 주문을 모두 처리한 뒤 단계 스레드를 멈춘다
+     * 기다리는 중에 인터럽트되면 남은 주문을 기다리지 않고 멈추고, 인터럽트 상태는 그대로 둔다
+     * @throws IllegalStateException 단계 스레드가 죽어서 남은 주문을 처리하지 못했을 때
+     */
+    @PreDestroy
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            drain();
+        } finally {
+            halted = true;
+            waitStrategy.signalAll();
+            joinStages();
+        }
+    }
+
+    private void joinStages() {
+        for (Thread thread : threads) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return; // 데몬 스레드라 halted 를 보고 스스로 끝난다
+            }
+        }
+    }
+
+    private IllegalStateException haltedException() {
+        Throwable cause = stageFailure;
+        return cause == null
+                ? new IllegalStateException("종료된 주문 파이프라인입니다")
+                : new IllegalStateException("주문 파이프라인 단계가 멈췄습니다", cause);
+    }
+
+    private void checkProducer() {
+        Thread current = Thread.currentThread();
+        if (producer == null) {
+            producer = current;
+        } else if (producer != current) {
+            throw new IllegalStateException("publish 는 한 스레드에서만 호출할 수 있습니다 (single writer)");
+        }
+    }
+
+    /**
+     * 링 버퍼 슬롯, 단계마다 자기 필드를 채우고 다음 단계가 읽는다 (순번으로 순서가 보장되므로 volatile 불필요)
+     */
+    static final class OrderEvent {
+        long memberId;
+        String itemName;
+        int itemPrice;
+        Member member;
+        int discountPrice;
+        long publishNanos;
+        boolean failed;
+    }
+
+    /**
+     * 앞 단계(dependency) 순번까지 와있는 슬롯을 차례로 처리하고 자기 순번을 올리는 단계
+     */
+    private abstract class Stage implements Runnable {
+
+        final Sequence sequence = new Sequence(-1);
+        private final Sequence dependency;
+
+        Stage(Sequence dependency) {
+            this.dependency = dependency;
+        }
+
+        abstract void onEvent(OrderEvent event, boolean endOfBatch);
+
+        @Override
+        public void run() {
+            try {
+                process();
+            } catch (Throwable e) {
+                // 다음 단계와 생산자가 영원히 기다리지 않도록 파이프라인 전체를 멈춘다
+                stageFailure = e;
+                halted = true;
+                waitStrategy.signalAll();
+                throw e;
+            }
+        }
+
+        private void process() {
+            long next = sequence.get() + 1;
+            while (true) {
+                long available = waitStrategy.waitFor(next, dependency, haltedCheck);
+                if (available < next) {
+                    if (halted) {
+                        return;
+                    }
+                    continue;
+                }
+                for (long s = next; s <= available; s++) {
+                    OrderEvent event = ring[(int) s & mask];
+                    if (event.failed && !(this instanceof JournalStage)) {
+                        continue;
+                    }
+                    try {
+                        onEvent(event, s == available);
+                    } catch (RuntimeException e) {
+                        event.failed = true;
+                        failureCount.incrementAndGet();
+                    }
+                }
+                sequence.set(available);
+                waitStrategy.signalAll();
+                next = available + 1;
+            }
+        }
+    }
+
+    private class JournalStage extends Stage {
+
+        private final List<Order> batch = new ArrayList<>();
+        private final List<OrderEvent> batchEvents = new ArrayList<>();
+
+        JournalStage(Sequence dependency) {
+            super(dependency);
+        }
+
+        @Override
+        void onEvent(OrderEvent event, boolean endOfBatch) {
+            if (event.failed) {
+                event.failed = false; // 다음 바퀴에 재사용되므로 여기서 초기화
+            } else {
+                if (orderRepository != null) {
+                    batch.add(new Order(event.memberId, event.itemName, event.itemPrice, event.discountPrice));
+                }
+                batchEvents.add(event);
+            }
+            if (endOfBatch) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            try {
+                if (!batch.isEmpty()) {
+                    orderRepository.saveAll(batch);
+                }
+                long now = System.nanoTime();
+                for (OrderEvent event : batchEvents) {
+                    latency.record(now - event.publishNanos);
+                }
+            } catch (RuntimeException e) {
+                failureCount.addAndGet(batchEvents.size());
+            } finally {
+                batch.clear();
+                batchEvents.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package hello.core.order;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 생성된 주문 기록 저장소
+ */
+public interface OrderRepository {
+
+    void save(Order order);
+
+    /**
+     * 여러 주문을 한 번에 저장, 기본 구현은 save를 반복 호출한다
+     */
+    default void saveAll(List<Order> orders) {
+        for (Order order : orders) {
+            save(order);
+        }
+    }
+
+    long count();
+
+    /**
+     * 저장된 순서대로 모든 주문을 하나씩 넘겨준다
+     */
+    void forEach(Consumer<Order> action);
+}
@@ -1,6 +1,38 @@
 package hello.core.order;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 public interface OrderService {
 
     Order createOrder(Long memberId, String itemName, int itemPrice);
+
+    /**
+     * 멱등 키가 있는 createOrder, 같은 키로 다시 요청하면(재시도) 다시 계산하지 않고 처음 만든 주문을 돌려준다
+     * 같은 키의 요청이 동시에 들어오면 처음 요청의 계산이 끝날 때까지 기다린다
+     */
+    Order createOrder(String idempotencyKey, Long memberId, String itemName, int itemPrice);
+
+    /**
+     * 할인 금액만 계산한다, 박싱/Order 생성 없이 int 로 돌려준다 (주문 기록은 하지 않는다)
+     * 회원을 꺼낼 때 복사하지 않는 저장소(PrimitiveMemberRepository 등)와 함께 쓰면 호출당 할당이 없다
+     */
+    int price(long memberId, int itemPrice);
+
+    /**
+     * 할인을 계산해서 Order 대신 sink 로 넘긴다 (주문 기록은 하지 않는다)
+     * 같은 ReusableOrder 를 계속 넘기면 주문마다 객체를 만들지 않는다
+     */
+    void price(long memberId, String itemName, int itemPrice, OrderSink sink);
+
+    /**
+     * createOrder 의 비동기 버전, 회원 조회와 할인 계산을 전용 executor 에서 처리하고 호출한 스레드는 바로 돌아온다
+     */
+    CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice);
+
+    /**
+     * 여러 주문을 한 번에 생성, 같은 회원은 한 번만 조회한다
+     * @return requests 와 같은 순서의 주문 목록
+     */
+    List<Order> createOrders(List<OrderRequest> requests);
 }
@@ -1,6 +1,7 @@
 package hello.core.order;
 
 import hello.core.annotation.MainDiscountPolicy;
+import hello.core.common.LongHash;
 import hello.core.discount.DiscountPolicy;
 import hello.core.member.Member;
 import hello.core.member.MemberRepository;
@@ -8,16 +9,47 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
 //@Component
 public class OrderServiceImpl implements OrderService {
     // final을 사용하면 초기화 단계에서 무조건 값이 할당되어야 한다.(기본으로 하던, 생성자로 하던)
     // 생성자 만들때 누락되어도 컴파일 오류로 알 수 있다
     private final MemberRepository memberRepository;
     private final DiscountPolicy discountPolicy;
+    private final OrderRepository orderRepository; // null 이면 주문을 기록하지 않는다
+    private final Executor asyncExecutor; // null 이면 OrderExecutors 공용 executor
+    private final IdempotencyCache idempotencyCache;
 
     public OrderServiceImpl(MemberRepository memberRepository, DiscountPolicy discountPolicy) {
+        this(memberRepository, discountPolicy, null);
+    }
+
+    public OrderServiceImpl(MemberRepository memberRepository, DiscountPolicy discountPolicy, OrderRepository orderRepository) {
+        this(memberRepository, discountPolicy, orderRepository, null);
+    }
+
+    public OrderServiceImpl(MemberRepository memberRepository, DiscountPolicy discountPolicy,
+                            OrderRepository orderRepository, Executor asyncExecutor) {
+        this(memberRepository, discountPolicy, orderRepository, asyncExecutor, new IdempotencyCache());
+    }
+
+    /**
+     * @param asyncExecutor    createOrderAsync 를 처리할 executor (OrderExecutors.create 참고)
+     * @param idempotencyCache 멱등 키 createOrder 결과를 보관하는 캐시 (크기, 만료 시간)
+     */
+    public OrderServiceImpl(MemberRepository memberRepository, DiscountPolicy discountPolicy,
+                            OrderRepository orderRepository, Executor asyncExecutor,
+                            IdempotencyCache idempotencyCache) {
         this.memberRepository = memberRepository;
         this.discountPolicy = discountPolicy;
+        this.orderRepository = orderRepository;
+        this.asyncExecutor = asyncExecutor;
+        this.idempotencyCache = idempotencyCache;
     }
 
     @Override
@@ -25,7 +57,11 @@ public class OrderServiceImpl implements OrderService {
         Member member = memberRepository.findById(memberId);
         int discountPrice = discountPolicy.discount(member, itemPrice);
 
-        return new Order(memberId, itemName, itemPrice, discountPrice);
+        Order order = new Order(memberId, itemName, itemPrice, discountPrice);
+        if (orderRepository != null) {
+            orderRepository.save(order);
+        }
+        return order;
         /**
          * 설계가 잘 된 이유?
          * OrderService 입장에서는 할인에 대해서는 모르겠고 DiscountPolicy 너가 알아서하고 결과만 던져줘
@@ -34,6 +70,130 @@ public class OrderServiceImpl implements OrderService {
          */
     }
 
+    @Override
+    public int price(long memberId, int itemPrice) {
+        Member member = memberRepository.findById(memberId); // long 버전 : 키 박싱 없음
+        return discountPolicy.discount(member, itemPrice);
+    }
+
+    @Override
+    public void price(long memberId, String itemName, int itemPrice, OrderSink sink) {
+        sink.accept(memberId, itemName, itemPrice, price(memberId, itemPrice));
+    }
+
+    // 처음 보는 키만 createOrder 로 계산/기록하고, 재시도는 캐시된 결과를 받는다
+    @Override
+    public Order createOrder(String idempotencyKey, Long memberId, String itemName, int itemPrice) {
+        return idempotencyCache.getOrCreate(idempotencyKey, memberId, itemName, itemPrice,
+                () -> createOrder(memberId, itemName, itemPrice));
+    }
+
+    // 회원 조회 -> 할인 계산 -> 기록을 전부 executor 위에서 실행한다 (호출한 스레드는 기다리지 않는다)
+    // 단계를 thenApply 로 나누면 조회가 먼저 끝났을 때 나머지가 호출한 스레드에서 돌 수 있으므로 한 작업으로 묶는다
+    @Override
+    public CompletableFuture<Order> createOrderAsync(Long memberId, String itemName, int itemPrice) {
+        Executor executor = asyncExecutor != null ? asyncExecutor : OrderExecutors.shared();
+        return CompletableFuture.supplyAsync(() -> createOrder(memberId, itemName, itemPrice), executor);
+    }
+
+    @Override
+    public List<Order> createOrders(List<OrderRequest> requests) {
+        int size = requests.size();
+
+        // 1. 줄마다 회원 번호(slot)를 매기고, 서로 다른 회원 id만 모은다
+        //    같은 회원이 연속으로 나오는 경우가 많아서 바로 앞 줄의 회원이면 해시 조회도 하지 않는다
+        MemberSlots memberSlots = new MemberSlots();
+        int[] slots = new int[size];
+        long previousId = 0;
+        int previousSlot = -1;
+        for (int i = 0; i < size; i++) {
+            Long memberId = requests.get(i).getMemberId();
+            if (memberId == null) {
+                slots[i] = -1;
+                continue;
+            }
+            long id = memberId;
+            if (previousSlot < 0 || id != previousId) {
+                previousId = id;
+                previousSlot = memberSlots.slotOf(id);
+            }
+            slots[i] = previousSlot;
+        }
+
+        // 2. 회원은 한 번에 조회 (서로 다른 회원 수만큼만)
+        Member[] members = memberRepository.findAllById(memberSlots.ids()).toArray(new Member[0]);
+
+        // 3. 입력 순서대로 한 번에 가격 계산
+        List<Order> orders = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            OrderRequest request = requests.get(i);
+            Member member = slots[i] < 0 ? null : members[slots[i]];
+            int discountPrice = discountPolicy.discount(member, request.getItemPrice());
+            orders.add(new Order(request.getMemberId(), request.getItemName(), request.getItemPrice(), discountPrice));
+        }
+        if (orderRepository != null) {
+            orderRepository.saveAll(orders); // 배치 전체를 한 번에 기록
+        }
+        return orders;
+    }
+
+    /**
+     * 회원 id -> 등장 순서 번호, 박싱 없는 long 키 오픈 어드레싱 테이블 (createOrders 한 번 동안만 쓴다)
+     * 값이 int 라 LongObjectMap(값이 객체) 대신 따로 두고, 해시는 LongHash 를 같이 쓴다
+     */
+    private static class MemberSlots {
+
+        private long[] keys = new long[16];
+        private int[] values = filled(16);
+        private long[] ids = new long[8];
+        private int count;
+
+        int slotOf(long id) {
+            int mask = keys.length - 1;
+            int index = LongHash.hash(id) & mask;
+            while (values[index] >= 0) {
+                if (keys[index] == id) {
+                    return values[index];
+                }
+                index = (index + 1) & mask;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+            }
+            ids[count] = id;
+            keys[index] = id;
+            values[index] = count;
+            if (++count * 2 > keys.length) {
+                rehash(keys.length * 2);
+            }
+            return count - 1;
+        }
+
+        long[] ids() {
+            return Arrays.copyOf(ids, count);
+        }
+
+        private void rehash(int capacity) {
+            keys = new long[capacity];
+            values = filled(capacity);
+            int mask = capacity - 1;
+            for (int slot = 0; slot < count; slot++) {
+                int index = LongHash.hash(ids[slot]) & mask;
+                while (values[index] >= 0) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = ids[slot];
+                values[index] = slot;
+            }
+        }
+
+        private static int[] filled(int capacity) {
+            int[] values = new int[capacity];
+            Arrays.fill(values, -1);
+            return values;
+        }
+    }
+
     // 테스트 용도
     public MemberRepository getMemberRepository() {
         return memberRepository;
@@ -0,0 +1,11 @@
+package hello.core.order;
+
+/**
+ * 계산된 주문을 Order 객체 없이 필드 그대로 받는 쪽 (OrderService.price 참고)
+ * 반복문에서 같은 sink(ReusableOrder 등)를 계속 넘기면 주문마다 객체를 만들지 않는다.
+ */
+@FunctionalInterface
+public interface OrderSink {
+
+    void accept(long memberId, String itemName, int itemPrice, int discountPrice);
+}
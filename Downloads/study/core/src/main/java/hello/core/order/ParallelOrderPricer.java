@@ -0,0 +1,100 @@
+package hello.core.order;
+
+import javax.annotation.PreDestroy;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 대량 주문 가격 계산(정산, 재계산 배치)을 여러 코어로 나눠 처리하는 엔진
+ *
+ * - 주문 목록을 threshold 이하가 될 때까지 반으로 나눠(fork-join) 각 조각을 OrderService.createOrders 로 계산한다
+ * - 결과는 입력 위치에 그대로 써넣으므로 몇 개의 스레드로 돌려도 순서가 항상 입력과 같다
+ * - 전용 ForkJoinPool 을 쓴다 -> 톰캣 요청 처리 등에서 쓰는 공용 풀(commonPool)을 점유하지 않는다
+ *
+ * 다 쓰면 close(@PreDestroy) 로 풀을 종료해야 한다.
+ */
+public class ParallelOrderPricer implements AutoCloseable {
+
+    private static final int DEFAULT_THRESHOLD = 2_048;
+
+    private final OrderService orderService;
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public ParallelOrderPricer(OrderService orderService) {
+        this(orderService, Runtime.getRuntime().availableProcessors(), DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param parallelism 사용할 스레드(코어) 수
+     * @param threshold   더 나누지 않고 한 스레드에서 계산할 최대 주문 수
+     */
+    public ParallelOrderPricer(OrderService orderService, int parallelism, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold 는 0보다 커야 합니다: " + threshold);
+        }
+        this.orderService = orderService;
+        this.threshold = threshold;
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("order-pricer-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * @return requests 와 같은 순서의 주문 목록
+     */
+    public List<Order> priceAll(List<OrderRequest> requests) {
+        if (requests.size() <= threshold) {
+            return orderService.createOrders(requests); // 나눌 필요가 없으면 호출한 스레드에서 바로 계산
+        }
+        Order[] orders = new Order[requests.size()];
+        pool.invoke(new PricingTask(requests, orders, 0, requests.size()));
+        return Arrays.asList(orders);
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    @PreDestroy
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    private class PricingTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<OrderRequest> requests;
+        private final Order[] orders;
+        private final int from;
+        private final int to;
+
+        PricingTask(List<OrderRequest> requests, Order[] orders, int from, int to) {
+            this.requests = requests;
+            this.orders = orders;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                List<Order> priced = orderService.createOrders(requests.subList(from, to));
+                for (int i = 0; i < priced.size(); i++) {
+                    orders[from + i] = priced.get(i);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new PricingTask(requests, orders, from, middle),
+                    new PricingTask(requests, orders, middle, to));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package hello.core.order;
+
+/**
+ * 계속 덮어쓰며 재사용하는 주문 (flyweight), accept 할 때마다 이전 값은 사라진다
+ * 한 스레드 안에서만 쓴다. 계속 들고 있어야 하는 주문은 toOrder() 로 복사한다.
+ */
+public final class ReusableOrder implements OrderSink {
+
+    private long memberId;
+    private String itemName;
+    private int itemPrice;
+    private int discountPrice;
+
+    @Override
+    public void accept(long memberId, String itemName, int itemPrice, int discountPrice) {
+        this.memberId = memberId;
+        this.itemName = itemName;
+        this.itemPrice = itemPrice;
+        this.discountPrice = discountPrice;
+    }
+
+    public int calculatePrice() {
+        return itemPrice - discountPrice;
+    }
+
+    public long getMemberId() {
+        return memberId;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public int getItemPrice() {
+        return itemPrice;
+    }
+
+    public int getDiscountPrice() {
+        return discountPrice;
+    }
+
+    public Order toOrder() {
+        return new Order(memberId, itemName, itemPrice, discountPrice);
+    }
+
+    /**
+     * Order.toString 과 같은 형식으로 이어붙인다, 로그용 StringBuilder 를 재사용하면 문자열을 새로 만들지 않는다
+     */
+    public StringBuilder appendTo(StringBuilder out) {
+        return out.append("Order{memberId=").append(memberId)
+                .append(", itemName='").append(itemName).append('\'')
+                .append(", itemPrice=").append(itemPrice)
+                .append(", discountPrice=").append(discountPrice)
+                .append('}');
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(64)).toString();
+    }
+}
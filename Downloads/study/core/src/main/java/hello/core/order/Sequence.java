@@ -0,0 +1,47 @@
+package hello.core.order;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 링 버퍼 위치(순번) 카운터, 앞뒤를 채워서(padding) 다른 스레드의 카운터와 같은 캐시 라인에 놓이지 않게 한다
+ */
+class Sequence extends SequenceValue {
+
+    @SuppressWarnings("unused")
+    private long p9, p10, p11, p12, p13, p14, p15;
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    Sequence(long initial) {
+        value = initial;
+    }
+
+    long get() {
+        return value;
+    }
+
+    /**
+     * 이 값 이하 슬롯에 쓴 내용이 다른 스레드에 보인 뒤에 값이 보이도록(release) 저장한다
+     */
+    void set(long newValue) {
+        VALUE.setRelease(this, newValue);
+    }
+}
+
+class SequencePadding {
+    @SuppressWarnings("unused")
+    private long p1, p2, p3, p4, p5, p6, p7;
+}
+
+class SequenceValue extends SequencePadding {
+    protected volatile long value;
+}
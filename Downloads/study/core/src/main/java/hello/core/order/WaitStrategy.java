@@ -0,0 +1,158 @@
+package hello.core.order;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 주문 파이프라인(OrderPipeline) 단계가 앞 단계를 기다리는 방법 : 지연시간 <-> CPU 사용량 트레이드오프
+ */
+public interface WaitStrategy {
+
+    /**
+     * dependency 가 sequence 이상이 될 때까지 기다린다
+     * @return 처리할 수 있는 마지막 순번, halted 가 true 가 되면 sequence 보다 작은 값을 돌려줄 수 있다
+     */
+    long waitFor(long sequence, Sequence dependency, BooleanSupplier halted);
+
+    /**
+     * 순번이 바뀌었음을 기다리는 쪽에 알린다 (잠들어 있는 스레드가 있는 전략만 의미가 있다)
+     */
+    void signalAll();
+
+    /** 계속 확인한다, 지연시간은 가장 짧지만 단계마다 코어 하나를 다 쓴다 (단계 수보다 코어가 많을 때만) */
+    static WaitStrategy busySpin() {
+        return new BusySpinWaitStrategy();
+    }
+
+    /** 잠깐 확인하다가 Thread.yield, 코어가 부족해도 다른 단계에 차례를 넘긴다 */
+    static WaitStrategy yielding() {
+        return new YieldingWaitStrategy();
+    }
+
+    /** 잠깐 확인하다가 parkNanos 로 잠든다, 한가할 때 CPU를 거의 쓰지 않는다 */
+    static WaitStrategy sleeping() {
+        return new SleepingWaitStrategy();
+    }
+
+    /** 락 + condition 으로 잠들고 깨운다, CPU는 가장 적게 쓰지만 publish 마다 락 비용이 있다 */
+    static WaitStrategy blocking() {
+        return new BlockingWaitStrategy();
+    }
+
+    class BusySpinWaitStrategy implements WaitStrategy {
+
+        @Override
+        public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+            long available;
+            while ((available = dependency.get()) < sequence) {
+                if (halted.getAsBoolean()) {
+                    return available;
+                }
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    class YieldingWaitStrategy implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = dependency.get()) < sequence) {
+                if (halted.getAsBoolean()) {
+                    return available;
+                }
+                if (counter > 0) {
+                    counter--;
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    class SleepingWaitStrategy implements WaitStrategy {
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+        private static final long SLEEP_NANOS = 100_000;
+
+        @Override
+        public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+            int counter = SPIN_TRIES + YIELD_TRIES;
+            long available;
+            while ((available = dependency.get()) < sequence) {
+                if (halted.getAsBoolean()) {
+                    return available;
+                }
+                if (counter > YIELD_TRIES) {
+                    counter--;
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAll() {
+        }
+    }
+
+    class BlockingWaitStrategy implements WaitStrategy {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition changed = lock.newCondition();
+
+        @Override
+        public long waitFor(long sequence, Sequence dependency, BooleanSupplier halted) {
+            long available = dependency.get();
+            if (available >= sequence) {
+                return available;
+            }
+            lock.lock();
+            try {
+                while ((available = dependency.get()) < sequence) {
+                    if (halted.getAsBoolean()) {
+                        return available;
+                    }
+                    changed.await(1, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAll() {
+            lock.lock();
+            try {
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
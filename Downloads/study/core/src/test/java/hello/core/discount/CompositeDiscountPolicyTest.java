@@ -0,0 +1,125 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompositeDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    // 쿠폰 : 등급과 상관없이 2000원
+    DiscountPolicy coupon = (member, price) -> 2000;
+
+    @Test
+    @DisplayName("MAX : 가장 큰 할인 하나만 적용한다")
+    void max() {
+        CompositeDiscountPolicy policy = CompositeDiscountPolicy.max(new FixDiscountPolicy(), new RateDiscountPolicy(), coupon);
+
+        assertThat(policy.discount(vip, 10000)).isEqualTo(2000);
+        assertThat(policy.discount(vip, 50000)).isEqualTo(5000);
+        assertThat(policy.discount(basic, 50000)).isEqualTo(2000);
+    }
+
+    @Test
+    @DisplayName("SUM_WITH_CAP : 모두 더하되 가격의 capPercent% 를 넘지 않는다")
+    void sumWithCap() {
+        CompositeDiscountPolicy policy = CompositeDiscountPolicy.sumWithCap(30, new FixDiscountPolicy(), new RateDiscountPolicy(), coupon);
+
+        assertThat(policy.discount(vip, 50000)).isEqualTo(1000 + 5000 + 2000);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(3000); // 1000 + 1000 + 2000 -> 상한 3000
+        assertThat(policy.discount(basic, 5000)).isEqualTo(1500);
+        assertThat(CompositeDiscountPolicy.sumWithCap(100, coupon).discount(basic, 1000)).isEqualTo(1000); // 가격까지
+    }
+
+    @Test
+    @DisplayName("FIRST_MATCH : 앞에서부터 처음으로 할인이 있는 정책 하나만 적용하고 뒤는 호출하지 않는다")
+    void firstMatch() {
+        List<String> called = new ArrayList<>();
+        DiscountPolicy campaign = (member, price) -> {
+            called.add("campaign");
+            return price >= 100000 ? 10000 : 0;
+        };
+        DiscountPolicy fallback = (member, price) -> {
+            called.add("fallback");
+            return 500;
+        };
+        CompositeDiscountPolicy policy = CompositeDiscountPolicy.firstMatch(campaign, fallback);
+
+        assertThat(policy.discount(basic, 200000)).isEqualTo(10000);
+        assertThat(called).containsExactly("campaign");
+        assertThat(policy.discount(basic, 10000)).isEqualTo(500);
+        assertThat(called).containsExactly("campaign", "campaign", "fallback");
+    }
+
+    @Test
+    @DisplayName("해당 등급에 할인을 줄 수 없는 정책은 호출하지 않는다")
+    void skipByGrade() throws IOException {
+        DiscountPolicy basicOnly = RuleDiscountPolicy.parse(new StringReader("BASIC 0 FIX 300"));
+        CompositeDiscountPolicy policy = CompositeDiscountPolicy.sumWithCap(50, new RateDiscountPolicy(), basicOnly);
+
+        for (int i = 0; i < 10; i++) {
+            policy.discount(basic, 10000);
+        }
+        policy.discount(vip, 10000);
+        policy.discount(new Member(3L, "noGrade", null), 10000);
+
+        List<CompositeDiscountPolicy.PolicyStats> stats = policy.stats();
+        assertThat(stats).extracting(CompositeDiscountPolicy.PolicyStats::name)
+                .containsExactly("0:RateDiscountPolicy", "1:RuleDiscountPolicy");
+        assertThat(stats.get(0).evaluations()).isEqualTo(1); // VIP 만
+        assertThat(stats.get(1).evaluations()).isEqualTo(10); // BASIC 만
+        assertThat(policy.canDiscount(null)).isFalse();
+        assertThat(policy.discount(new Member(3L, "noGrade", null), 10000)).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("호출 횟수는 항상 세고, 시간은 interval 번에 한 번만 잰다")
+    void timingSamples() {
+        DiscountPolicy slow = (member, price) -> {
+            long until = System.nanoTime() + 100_000;
+            while (System.nanoTime() < until) {
+                Thread.onSpinWait();
+            }
+            return 1;
+        };
+        CompositeDiscountPolicy policy = CompositeDiscountPolicy.sumWithCap(100, new FixDiscountPolicy(), slow);
+
+        for (int i = 0; i < 128; i++) {
+            policy.discount(vip, 10000);
+        }
+        CompositeDiscountPolicy.PolicyStats slowStats = policy.stats().get(1);
+        assertThat(slowStats.evaluations()).isEqualTo(128);
+        assertThat(slowStats.samples()).isEqualTo(2); // 기본 64번에 한 번
+        assertThat(slowStats.averageNanos()).isGreaterThanOrEqualTo(100_000);
+
+        policy.setTimingSampleInterval(1);
+        policy.discount(vip, 10000);
+        assertThat(slowStats.samples()).isEqualTo(3);
+
+        policy.setTimingSampleInterval(0);
+        policy.discount(vip, 10000);
+        assertThat(slowStats.evaluations()).isEqualTo(130);
+        assertThat(slowStats.samples()).isEqualTo(3);
+
+        slowStats.reset();
+        assertThat(slowStats.evaluations()).isZero();
+        assertThat(slowStats.averageNanos()).isZero();
+        assertThatThrownBy(() -> policy.setTimingSampleInterval(-1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void invalidArguments() {
+        assertThatThrownBy(CompositeDiscountPolicy::max).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CompositeDiscountPolicy.sumWithCap(101, coupon)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiscountAllTest {
+
+    @Test
+    @DisplayName("discountAll 은 줄마다 discount 를 호출한 결과와 같다")
+    void sameAsDiscount() throws IOException {
+        DiscountPolicy rule = RuleDiscountPolicy.parse(new StringReader("VIP 0 RATE 10\nBASIC 50000 FIX 1000\n* 500000 RATE 20"));
+        DiscountPolicy[] policies = {
+                new FixDiscountPolicy(),
+                new RateDiscountPolicy(),
+                new RateDiscountPolicy(25),
+                rule,
+                new SwitchableDiscountPolicy(rule),
+                (member, price) -> member.getGrade() == Grade.BASIC ? price / 3 : 7 // 기본 구현
+        };
+        Grade[] grades = Grade.values();
+        Random random = new Random(1);
+        int size = 10_000;
+        byte[] gradeOrdinals = new byte[size];
+        int[] prices = new int[size];
+        for (int i = 0; i < size; i++) {
+            gradeOrdinals[i] = (byte) (random.nextInt(grades.length + 1) - 1); // -1 은 등급 없음
+            prices[i] = random.nextInt(1_000_000);
+        }
+
+        for (DiscountPolicy policy : policies) {
+            int[] out = new int[size];
+            policy.discountAll(gradeOrdinals, prices, out);
+            for (int i = 0; i < size; i++) {
+                Grade grade = gradeOrdinals[i] < 0 ? null : grades[gradeOrdinals[i]];
+                assertThat(out[i]).as("%s [%d]", policy, i)
+                        .isEqualTo(policy.discount(new Member((long) i, "member", grade), prices[i]));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("범위를 벗어난 등급 ordinal 은 모든 구현에서 등급 없음과 같게 0원")
+    void outOfRangeGrade() throws IOException {
+        DiscountPolicy rule = RuleDiscountPolicy.parse(new StringReader("* 0 RATE 10"));
+        DiscountPolicy[] policies = {
+                new FixDiscountPolicy(),
+                new RateDiscountPolicy(),
+                rule,
+                new SwitchableDiscountPolicy(rule),
+                (member, price) -> member.getGrade() == null ? 0 : 7 // 기본 구현
+        };
+        byte[] gradeOrdinals = {(byte) Grade.values().length, Byte.MAX_VALUE, -2, Byte.MIN_VALUE};
+        int[] prices = {10_000, 10_000, 10_000, 10_000};
+
+        for (DiscountPolicy policy : policies) {
+            int[] out = new int[prices.length];
+            policy.discountAll(gradeOrdinals, prices, out);
+            assertThat(out).as("%s", policy).containsOnly(0);
+        }
+    }
+
+    @Test
+    void lengthMismatch() {
+        assertThatThrownBy(() -> new RateDiscountPolicy().discountAll(new byte[3], new int[2], new int[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new FixDiscountPolicy().discountAll(new byte[3], new int[3], new int[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 대량 재계산 비교 (JMH) : 줄마다 discount(Member, int) vs discountAll(byte[], int[], int[])
+ * 실행: main() 실행, 결과는 size 줄 전체 처리 시간
+ *
+ * 줄당 읽고 쓰는 양은 discountAll 기준 9byte (등급 1 + 가격 4 + 결과 4)
+ * size = 10M 이면 약 90MB 라 캐시에 들어가지 않는다 -> 메모리 대역폭과 비교
+ * perOrder 는 MEMBER_COUNT 명의 회원이 섞여 있는 주문 (줄마다 Member 역참조)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountBatchBenchmark {
+
+    private static final int MEMBER_COUNT = 1_000_000;
+
+    @Param({"100000", "10000000"})
+    public int size;
+
+    @Param({"fix", "rate"})
+    public String policyType;
+
+    private DiscountPolicy policy;
+    private Member[] members;
+    private byte[] gradeOrdinals;
+    private int[] prices;
+    private int[] out;
+
+    @Setup
+    public void setUp() {
+        policy = "fix".equals(policyType) ? new FixDiscountPolicy() : new RateDiscountPolicy();
+        Random random = new Random(42);
+        Member[] pool = new Member[MEMBER_COUNT];
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            pool[i] = new Member((long) i, "member", random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+        }
+        members = new Member[size];
+        gradeOrdinals = new byte[size];
+        prices = new int[size];
+        out = new int[size];
+        for (int i = 0; i < size; i++) {
+            members[i] = pool[random.nextInt(MEMBER_COUNT)];
+            gradeOrdinals[i] = (byte) members[i].getGrade().ordinal();
+            prices[i] = random.nextInt(1_000_000);
+        }
+    }
+
+    @Benchmark
+    public int[] perOrder() {
+        for (int i = 0; i < size; i++) {
+            out[i] = policy.discount(members[i], prices[i]);
+        }
+        return out;
+    }
+
+    @Benchmark
+    public int[] discountAll() {
+        policy.discountAll(gradeOrdinals, prices, out);
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DiscountBatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,140 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 할인 정책별 discount 호출 비용 비교 (JMH)
+ * 실행: main() 실행, 결과는 ORDER_COUNT 건 계산 시간 (건당 시간 = 결과 / ORDER_COUNT)
+ *
+ * rule 은 등급마다 ruleCount / 2 개의 가격 구간 규칙을 읽은 RuleDiscountPolicy
+ * switchable 은 rate 를 SwitchableDiscountPolicy 로 감싼 것 (volatile 읽기 + 위임 비용)
+ * composite 는 fix + rate + rule 을 sumWithCap(30) 으로 묶은 것 (기본 : 64번에 한 번 시간 측정)
+ * compositeUntimed 는 시간 측정을 끈 것, compositeTimedEveryCall 은 매번 재는 것
+ * 회원 등급과 가격은 섞여 있다 (분기 예측이 쉽지 않게)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountPolicyBenchmark {
+
+    private static final int ORDER_COUNT = 10_000;
+    private static final int MAX_PRICE = 1_000_000;
+
+    @Param({"1", "10", "40"})
+    public int ruleCount;
+
+    private DiscountPolicy fix;
+    private DiscountPolicy rate;
+    private DiscountPolicy rule;
+    private DiscountPolicy switchable;
+    private DiscountPolicy composite;
+    private DiscountPolicy compositeUntimed;
+    private DiscountPolicy compositeTimedEveryCall;
+    private Member[] members;
+    private int[] prices;
+
+    @Setup
+    public void setUp() throws IOException {
+        fix = new FixDiscountPolicy();
+        rate = new RateDiscountPolicy();
+        rule = RuleDiscountPolicy.parse(new StringReader(rules(ruleCount)));
+        switchable = new SwitchableDiscountPolicy(new RateDiscountPolicy());
+        composite = CompositeDiscountPolicy.sumWithCap(30, fix, rate, rule);
+        CompositeDiscountPolicy untimed = CompositeDiscountPolicy.sumWithCap(30, fix, rate, rule);
+        untimed.setTimingSampleInterval(0);
+        compositeUntimed = untimed;
+        CompositeDiscountPolicy timedEveryCall = CompositeDiscountPolicy.sumWithCap(30, fix, rate, rule);
+        timedEveryCall.setTimingSampleInterval(1);
+        compositeTimedEveryCall = timedEveryCall;
+
+        Random random = new Random(42);
+        members = new Member[ORDER_COUNT];
+        prices = new int[ORDER_COUNT];
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            members[i] = new Member((long) i, "member" + i, random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+            prices[i] = random.nextInt(MAX_PRICE);
+        }
+    }
+
+    // 등급마다 0원부터 MAX_PRICE 까지 같은 간격의 구간, 구간이 올라갈수록 할인율/금액이 커진다
+    static String rules(int ruleCount) {
+        StringBuilder rules = new StringBuilder();
+        for (int i = 0; i < ruleCount; i++) {
+            Grade grade = i % 2 == 0 ? Grade.VIP : Grade.BASIC;
+            int tier = i / 2;
+            int tiers = Math.max((ruleCount + 1 - i % 2) / 2, 1);
+            int minPrice = MAX_PRICE / tiers * tier;
+            if (grade == Grade.VIP) {
+                rules.append("VIP ").append(minPrice).append(" RATE ").append(Math.min(5 + tier, 100));
+            } else {
+                rules.append("BASIC ").append(minPrice).append(" FIX ").append(500 * (tier + 1));
+            }
+            rules.append('\n');
+        }
+        return rules.toString();
+    }
+
+    @Benchmark
+    public long fix() {
+        return run(fix);
+    }
+
+    @Benchmark
+    public long rate() {
+        return run(rate);
+    }
+
+    @Benchmark
+    public long rule() {
+        return run(rule);
+    }
+
+    @Benchmark
+    public long switchable() {
+        return run(switchable);
+    }
+
+    @Benchmark
+    public long composite() {
+        return run(composite);
+    }
+
+    @Benchmark
+    public long compositeUntimed() {
+        return run(compositeUntimed);
+    }
+
+    @Benchmark
+    public long compositeTimedEveryCall() {
+        return run(compositeTimedEveryCall);
+    }
+
+    private long run(DiscountPolicy policy) {
+        long sum = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            sum += policy.discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DiscountPolicyBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,102 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 정책 선택 방식 비교 (JMH) : 빈 이름 문자열로 Map 조회 vs DiscountRouter.Code 로 배열 조회
+ * 실행: main() 실행, 결과는 ORDER_COUNT 건 계산 시간
+ *
+ * 주문마다 정책이 제각각이고, 정책 이름 문자열은 요청에서 새로 만들어진 것처럼 해시가 캐시되지 않은 상태로 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiscountRouterBenchmark {
+
+    private static final int ORDER_COUNT = 10_000;
+    private static final String[] NAMES = {"fixDiscountPolicy", "rateDiscountPolicy", "rate15DiscountPolicy"};
+
+    private Map<String, DiscountPolicy> policyMap;
+    private DiscountRouter router;
+    private Member[] members;
+    private int[] prices;
+    private int[] policyIndexes;
+    private DiscountRouter.Code[] codes;
+    private char[][] nameChars;
+
+    @Setup
+    public void setUp() {
+        policyMap = new HashMap<>();
+        policyMap.put(NAMES[0], new FixDiscountPolicy());
+        policyMap.put(NAMES[1], new RateDiscountPolicy());
+        policyMap.put(NAMES[2], new RateDiscountPolicy(15));
+        router = new DiscountRouter(policyMap);
+
+        Random random = new Random(42);
+        members = new Member[ORDER_COUNT];
+        prices = new int[ORDER_COUNT];
+        policyIndexes = new int[ORDER_COUNT];
+        codes = new DiscountRouter.Code[ORDER_COUNT];
+        nameChars = new char[NAMES.length][];
+        for (int i = 0; i < NAMES.length; i++) {
+            nameChars[i] = NAMES[i].toCharArray();
+        }
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            members[i] = new Member((long) i, "member", random.nextBoolean() ? Grade.VIP : Grade.BASIC);
+            prices[i] = random.nextInt(1_000_000);
+            policyIndexes[i] = random.nextInt(NAMES.length);
+            codes[i] = router.code(NAMES[policyIndexes[i]]);
+        }
+    }
+
+    // 요청 파라미터로 받은 문자열 : 매번 새 String 이라 hashCode 를 다시 계산한다
+    @Benchmark
+    public long stringMap() {
+        long sum = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            String name = new String(nameChars[policyIndexes[i]]);
+            sum += policyMap.get(name).discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    // 상수 문자열 : hashCode 는 캐시되어 있고 해시 버킷 조회 + equals 비용만 남는다
+    @Benchmark
+    public long internedStringMap() {
+        long sum = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            sum += policyMap.get(NAMES[policyIndexes[i]]).discount(members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long router() {
+        long sum = 0;
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            sum += router.discount(codes[i], members[i], prices[i]);
+        }
+        return sum;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DiscountRouterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
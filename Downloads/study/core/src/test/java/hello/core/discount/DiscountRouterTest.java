@@ -0,0 +1,59 @@
+package hello.core.discount;
+
+import hello.core.AutoAppConfig;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DiscountRouterTest {
+
+    Member vip = new Member(1L, "userA", Grade.VIP);
+
+    @Test
+    @DisplayName("스프링 빈으로 등록되면 모든 DiscountPolicy 빈에 번호를 매긴다")
+    void findAllPolicyBeans() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(AutoAppConfig.class);
+        DiscountRouter router = ac.getBean(DiscountRouter.class);
+
+        assertThat(router.codes()).extracting(DiscountRouter.Code::name)
+                .containsExactly("fixDiscountPolicy", "rateDiscountPolicy");
+        assertThat(router.discount(router.code("fixDiscountPolicy"), vip, 10000)).isEqualTo(1000);
+        assertThat(router.discount(router.code("rateDiscountPolicy"), vip, 20000)).isEqualTo(2000);
+        ac.close();
+    }
+
+    @Test
+    @DisplayName("번호는 빈 이름 순으로 0부터 빈틈없이 매겨진다")
+    void denseCodes() {
+        Map<String, DiscountPolicy> policies = new LinkedHashMap<>();
+        policies.put("rate", new RateDiscountPolicy());
+        policies.put("fix", new FixDiscountPolicy());
+        policies.put("rate15", new RateDiscountPolicy(15));
+        DiscountRouter router = new DiscountRouter(policies);
+
+        assertThat(router.codes()).extracting(DiscountRouter.Code::index).containsExactly(0, 1, 2);
+        assertThat(router.codes()).extracting(DiscountRouter.Code::name).containsExactly("fix", "rate", "rate15");
+        assertThat(router.policy(router.code("rate15"))).isSameAs(policies.get("rate15"));
+
+        int[] out = new int[1];
+        router.discountAll(router.code("rate15"), new byte[]{(byte) Grade.VIP.ordinal()}, new int[]{10000}, out);
+        assertThat(out[0]).isEqualTo(1500);
+    }
+
+    @Test
+    void unknownCode() {
+        DiscountRouter router = new DiscountRouter(Map.of("fix", new FixDiscountPolicy()));
+        DiscountRouter other = new DiscountRouter(Map.of("fix", new FixDiscountPolicy()));
+
+        assertThatThrownBy(() -> router.code("rate")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> router.discount(other.code("fix"), vip, 10000))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RuleDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+    Member basic = new Member(2L, "memberBASIC", Grade.BASIC);
+
+    @Test
+    @DisplayName("기본 규칙 파일은 RateDiscountPolicy 와 같은 할인을 한다")
+    void defaultRules() {
+        RuleDiscountPolicy policy = RuleDiscountPolicy.loadResource("discount-rules.txt");
+        RateDiscountPolicy rate = new RateDiscountPolicy();
+
+        for (int price : new int[]{0, 999, 10000, 123456}) {
+            assertThat(policy.discount(vip, price)).isEqualTo(rate.discount(vip, price));
+            assertThat(policy.discount(basic, price)).isEqualTo(rate.discount(basic, price));
+        }
+    }
+
+    @Test
+    @DisplayName("가격 구간마다 최소금액이 가장 큰 규칙 하나만 적용된다")
+    void tiers() throws IOException {
+        RuleDiscountPolicy policy = parse(
+                "# 등급 최소금액 종류 값\n" +
+                "VIP   0       RATE 10\n" +
+                "VIP   100000  RATE 15   # 10만원 이상\n" +
+                "basic 50000   FIX  1000\n" +
+                "*     1000000 FIX  20000\n");
+
+        assertThat(policy.ruleCount()).isEqualTo(4);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+        assertThat(policy.discount(vip, 100000)).isEqualTo(15000);
+        assertThat(policy.discount(vip, 2000000)).isEqualTo(20000);
+        assertThat(policy.discount(basic, 49999)).isEqualTo(0);
+        assertThat(policy.discount(basic, 50000)).isEqualTo(1000);
+        assertThat(policy.discount(basic, 1000000)).isEqualTo(20000);
+    }
+
+    @Test
+    @DisplayName("구간 수가 2의 거듭제곱이 아니어도 경계마다 맞는 구간을 찾는다")
+    void manyTiers() throws IOException {
+        for (int ruleCount = 1; ruleCount <= 20; ruleCount++) {
+            StringBuilder rules = new StringBuilder();
+            for (int i = 1; i <= ruleCount; i++) {
+                rules.append("VIP ").append(i * 1000).append(" FIX ").append(i).append('\n');
+            }
+            RuleDiscountPolicy policy = parse(rules.toString());
+
+            assertThat(policy.discount(vip, Integer.MIN_VALUE)).isEqualTo(0);
+            assertThat(policy.discount(vip, 999)).isEqualTo(0);
+            for (int i = 1; i <= ruleCount; i++) {
+                assertThat(policy.discount(vip, i * 1000)).as("rules=%d, tier=%d", ruleCount, i).isEqualTo(i);
+                assertThat(policy.discount(vip, i * 1000 + 999)).as("rules=%d, tier=%d", ruleCount, i).isEqualTo(i);
+            }
+            assertThat(policy.discount(vip, Integer.MAX_VALUE)).isEqualTo(ruleCount);
+            assertThat(policy.discount(basic, Integer.MAX_VALUE)).isEqualTo(0);
+        }
+    }
+
+    @Test
+    @DisplayName("할인 금액은 가격을 넘지 않는다")
+    void capAtPrice() throws IOException {
+        RuleDiscountPolicy policy = parse("VIP 0 FIX 1000");
+
+        assertThat(policy.discount(vip, 500)).isEqualTo(500);
+        assertThat(policy.discount(new Member(3L, "noGrade", null), 500)).isEqualTo(0);
+    }
+
+    @Test
+    void load(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("rules.txt");
+        Files.writeString(file, "VIP 0 FIX 1000\n");
+
+        assertThat(RuleDiscountPolicy.load(file).discount(vip, 10000)).isEqualTo(1000);
+    }
+
+    @Test
+    @DisplayName("잘못된 규칙은 줄 번호와 함께 읽을 때 실패한다")
+    void invalidRules() {
+        assertThatThrownBy(() -> parse("VIP 0 RATE 10\nGOLD 0 RATE 10"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageStartingWith("2번째 줄");
+        assertThatThrownBy(() -> parse("VIP 0 RATE 101"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("VIP zero RATE 10"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("VIP 0 PERCENT 10"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("VIP 0 RATE 10\n* 0 FIX 1000"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("이미 있습니다");
+    }
+
+    private static RuleDiscountPolicy parse(String rules) throws IOException {
+        return RuleDiscountPolicy.parse(new StringReader(rules));
+    }
+}
@@ -0,0 +1,117 @@
+package hello.core.discount;
+
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SwitchableDiscountPolicyTest {
+
+    Member vip = new Member(1L, "memberVIP", Grade.VIP);
+
+    @Test
+    @DisplayName("swap 하면 다음 호출부터 새 정책으로 할인한다")
+    void swap() {
+        SwitchableDiscountPolicy policy = new SwitchableDiscountPolicy(new RateDiscountPolicy());
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+
+        DiscountPolicy previous = policy.swap(new RateDiscountPolicy(15));
+
+        assertThat(previous).isInstanceOf(RateDiscountPolicy.class);
+        assertThat(policy.discount(vip, 10000)).isEqualTo(1500);
+        assertThat(policy.swapCount()).isEqualTo(1);
+        assertThatThrownBy(policy::reload).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("할인 계산 중에 교체해도 항상 두 정책 중 하나의 결과가 나온다")
+    void swapWhileReading() throws Exception {
+        SwitchableDiscountPolicy policy = new SwitchableDiscountPolicy(new FixDiscountPolicy());
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong reads = new AtomicLong();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> reader = executor.submit(() -> {
+                while (running.get()) {
+                    assertThat(policy.discount(vip, 20000)).isIn(1000, 2000);
+                    reads.incrementAndGet();
+                }
+            });
+            // 코어가 하나여도 읽는 쪽이 실제로 돌고 있는 동안 교체하도록 읽은 횟수까지 확인
+            for (int i = 0; i < 1000 || (reads.get() < 1000 && !reader.isDone()); i++) {
+                policy.swap(i % 2 == 0 ? new RateDiscountPolicy() : new FixDiscountPolicy());
+                if (i % 100 == 0) {
+                    Thread.yield();
+                }
+            }
+            running.set(false);
+            reader.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("규칙 파일이 바뀌면 다시 읽어서 교체하고, 잘못된 파일이면 기존 정책을 유지한다")
+    void watchRulesFile(@TempDir Path dir) throws Exception {
+        Path file = dir.resolve("discount-rules.txt");
+        Files.writeString(file, "VIP 0 RATE 10\n");
+
+        try (SwitchableDiscountPolicy policy = SwitchableDiscountPolicy.watch(file)) {
+            assertThat(policy.discount(vip, 10000)).isEqualTo(1000);
+
+            replace(dir, file, "VIP 0 RATE 20\n");
+            awaitUntil(() -> policy.discount(vip, 10000) == 2000);
+
+            replace(dir, file, "VIP 0 RATE 200\n");
+            awaitUntil(() -> policy.lastReloadError() != null);
+            assertThat(policy.discount(vip, 10000)).isEqualTo(2000);
+
+            Files.writeString(file, "VIP 0 FIX 500\n"); // 제자리 수정
+            awaitUntil(() -> policy.discount(vip, 10000) == 500);
+            assertThat(policy.lastReloadError()).isNull();
+        }
+    }
+
+    @Test
+    void reload(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("discount-rules.txt");
+        Files.writeString(file, "VIP 0 RATE 10\n");
+
+        try (SwitchableDiscountPolicy policy = SwitchableDiscountPolicy.watch(file)) {
+            Files.writeString(file, "VIP 0 FIX 700\n");
+            policy.reload(); // 감시를 기다리지 않고 바로 (관리용 API)
+
+            assertThat(policy.discount(vip, 10000)).isEqualTo(700);
+        }
+    }
+
+    // 편집기처럼 임시 파일에 쓰고 이름을 바꾼다
+    private static void replace(Path dir, Path file, String content) throws IOException {
+        Path tmp = Files.writeString(dir.resolve("rules.tmp"), content);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("10초 안에 반영되어야 한다").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}
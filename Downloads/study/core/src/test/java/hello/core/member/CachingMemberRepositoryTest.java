@@ -0,0 +1,96 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CachingMemberRepositoryTest {
+
+    OffHeapMemberRepository backend = new OffHeapMemberRepository();
+
+    @Test
+    void hitAndMiss() {
+        CachingMemberRepository memberRepository = new CachingMemberRepository(backend, 1024 * 1024);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        Member first = memberRepository.findById(1L);
+        Member second = memberRepository.findById(1L);
+
+        assertThat(second.getName()).isEqualTo(first.getName());
+        assertThat(memberRepository.missCount()).isEqualTo(1);
+        assertThat(memberRepository.hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조회한 회원을 바꿔도 캐시된 값은 바뀌지 않는다")
+    void returnsCopies() {
+        CachingMemberRepository memberRepository = new CachingMemberRepository(backend, 1024 * 1024);
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.findById(1L).setName("changed"); // miss
+        memberRepository.findById(1L).setGrade(Grade.VIP); // hit
+
+        Member cached = memberRepository.findById(1L);
+        assertThat(cached.getName()).isEqualTo("memberA");
+        assertThat(cached.getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(memberRepository.findById(1L)).isNotSameAs(cached);
+        assertThat(memberRepository.hitCount()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("save 하면 캐시에서 지워지고 다음 조회는 새 값을 읽는다")
+    void invalidateOnSave() {
+        CachingMemberRepository memberRepository = new CachingMemberRepository(backend, 1024 * 1024);
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.findById(1L);
+
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("자주 조회되는 회원은 한 번씩만 조회되는 회원들에게 밀려나지 않는다")
+    void frequencyAdmission() {
+        long maxWeight = 16 * 20 * CachingMemberRepository.weigh(new Member(0L, "member0", Grade.VIP));
+        CachingMemberRepository memberRepository = new CachingMemberRepository(backend, maxWeight);
+        for (long id = 0; id < 10_000; id++) {
+            backend.save(new Member(id, "member" + (id % 10), Grade.BASIC));
+        }
+
+        for (long id = 1; id < 10_000; id++) {
+            memberRepository.findById(id); // 한 번씩만 조회 (scan)
+            if (id % 10 == 0) {
+                memberRepository.findById(0L); // 계속 조회되는 VIP 회원
+            }
+        }
+
+        // VIP 회원 999번 조회 중 처음 한 번만 miss, 이후에는 scan 중에도 캐시에 남아있다
+        assertThat(memberRepository.hitCount()).isEqualTo(998);
+        assertThat(memberRepository.rejectionCount()).isGreaterThan(0);
+        assertThat(memberRepository.weightBytes()).isLessThanOrEqualTo(maxWeight); // sketch 포함
+    }
+
+    @Test
+    @DisplayName("close 하면 감싼 저장소도 닫는다")
+    void closeDelegate() {
+        ClosingRepository closing = new ClosingRepository();
+        CachingMemberRepository memberRepository = new CachingMemberRepository(closing, 1024 * 1024);
+
+        memberRepository.close();
+
+        assertThat(closing.closed).isTrue();
+        new CachingMemberRepository(backend, 1024).close(); // AutoCloseable 이 아니면 아무것도 하지 않는다
+    }
+
+    static class ClosingRepository extends ConcurrentMemberRepository implements AutoCloseable {
+
+        boolean closed;
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class CompactMemberRepositoryTest {
+
+    NamePool namePool = new NamePool();
+    CompactMemberRepository memberRepository = new CompactMemberRepository(16, namePool);
+
+    @Test
+    @DisplayName("같은 이름의 회원은 String 인스턴스 하나를 같이 쓴다")
+    void sharedNames() {
+        memberRepository.save(new Member(1L, new String("memberA"), Grade.BASIC));
+        memberRepository.save(new Member(2L, new String("memberA"), Grade.VIP));
+
+        CompactMember first = memberRepository.findCompactById(1L);
+        CompactMember second = memberRepository.findCompactById(2L);
+        assertThat(first.getName()).isSameAs(second.getName());
+        assertThat(namePool.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조회한 Member를 수정해도 저장된 회원은 바뀌지 않는다")
+    void immutable() {
+        memberRepository.saveAll(List.of(new Member(1L, "memberA", Grade.BASIC), new Member(2L, null, null)));
+
+        Member member = memberRepository.findById(1L);
+        member.setGrade(Grade.VIP);
+
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(memberRepository.findCompactById(1L)).isSameAs(memberRepository.findCompactById(1L));
+        assertThat(memberRepository.findCompactById(2L)).isEqualTo(new CompactMember(2L, null, null, namePool));
+        assertThat(memberRepository.findById(3L)).isNull();
+        assertThat(memberRepository.size()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,43 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConcurrentMemberRepositoryTest {
+
+    ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 저장해도 유실되는 회원이 없어야 한다")
+    void concurrentSave() throws Exception {
+        int threadCount = 8;
+        int perThread = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            long base = (long) t * perThread;
+            futures.add(executorService.submit(() -> {
+                for (long id = base; id < base + perThread; id++) {
+                    memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+
+        for (long id = 0; id < (long) threadCount * perThread; id++) {
+            assertThat(memberRepository.findById(id).getId()).isEqualTo(id);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package hello.core.member;
+
+import hello.core.member.FileMemberRepository.SyncPolicy;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class FileMemberRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("재시작하면 로그를 재생해서 회원을 복구한다")
+    void recoverFromLog() {
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.save(new Member(2L, null, null));
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        }
+
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory)) {
+            assertThat(memberRepository.size()).isEqualTo(2);
+            assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+            assertThat(memberRepository.findById(2L).getName()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("스냅샷 + 스냅샷 이후 로그로 복구하고, 스냅샷 이전 로그는 다시 재생하지 않는다")
+    void recoverFromSnapshotAndLogTail() {
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory, SyncPolicy.ASYNC, 10, 100)) {
+            for (long id = 1; id <= 250; id++) {
+                memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+            }
+            memberRepository.save(new Member(1L, "renamed", Grade.VIP));
+        }
+
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory, SyncPolicy.ASYNC, 10, 100)) {
+            assertThat(memberRepository.size()).isEqualTo(250);
+            assertThat(memberRepository.findById(1L).getName()).isEqualTo("renamed");
+            assertThat(memberRepository.findById(250L).getName()).isEqualTo("member250");
+        }
+    }
+
+    @Test
+    @DisplayName("쓰다가 끊긴 마지막 레코드는 버리고 그 앞까지만 복구한다")
+    void tornTail() throws Exception {
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory, SyncPolicy.SYNC, 10, 1000)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        }
+        // 두 번째 레코드의 이름 바이트 일부를 망가뜨린다
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(FileMemberRepository.LOG_FILE).toFile(), "rw")) {
+            int firstRecord = 8 + file.readInt();
+            file.seek(firstRecord + 8 + 8 + 8 + 1 + 4);
+            file.writeByte('X');
+        }
+
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory)) {
+            assertThat(memberRepository.findById(1L)).isNotNull();
+            assertThat(memberRepository.findById(2L)).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("group commit 모드에서 동시에 저장해도 모두 복구된다")
+    void groupCommit() throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory, SyncPolicy.GROUP, 10, 1_000_000)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                long base = t * 1000L;
+                futures.add(executorService.submit(() -> {
+                    for (long id = base; id < base + 1000; id++) {
+                        memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        try (FileMemberRepository memberRepository = new FileMemberRepository(directory)) {
+            assertThat(memberRepository.size()).isEqualTo(4000);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IndexedMemberRepositoryTest {
+
+    IndexedMemberRepository memberRepository = new IndexedMemberRepository(new ConcurrentMemberRepository());
+
+    @Test
+    void countAndFindByGrade() {
+        for (long id = 1; id <= 200_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 50_000 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(4);
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isEqualTo(199_996);
+        assertThat(ids(memberRepository.findIdsByGrade(Grade.VIP))).containsExactly(50_000L, 100_000L, 150_000L, 200_000L);
+    }
+
+    @Test
+    @DisplayName("멀리 떨어진 큰 id, 음수 id도 다른 저장소처럼 받고 id 순서대로 찾는다")
+    void sparseIds() {
+        long[] ids = {Long.MIN_VALUE, -1L, 0L, 1L, 1_000_000_000_000L, 1L << 47, Long.MAX_VALUE};
+        for (int i = ids.length - 1; i >= 0; i--) {
+            memberRepository.save(new Member(ids[i], "member" + i, Grade.VIP));
+        }
+        memberRepository.save(new Member(1L << 46, "basic", Grade.BASIC));
+
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(ids.length);
+        assertThat(ids(memberRepository.findIdsByGrade(Grade.VIP))).containsExactly(
+                Long.MIN_VALUE, -1L, 0L, 1L, 1_000_000_000_000L, 1L << 47, Long.MAX_VALUE);
+        assertThat(ids(memberRepository.findIdsByGrade(Grade.BASIC))).containsExactly(1L << 46);
+
+        memberRepository.findById(Long.MAX_VALUE).setGrade(Grade.BASIC);
+        assertThat(ids(memberRepository.findIdsByGrade(Grade.BASIC))).containsExactly(1L << 46, Long.MAX_VALUE);
+    }
+
+    @Test
+    @DisplayName("setGrade로 등급이 바뀌면 인덱스도 바로 바뀐다")
+    void upgrade() {
+        Member member = new Member(1L, "memberA", Grade.BASIC);
+        memberRepository.save(member);
+
+        member.setGrade(Grade.VIP);
+
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isEqualTo(0);
+        assertThat(ids(memberRepository.findIdsByGrade(Grade.VIP))).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("복사본을 돌려주는 저장소도 조회한 회원의 setGrade가 저장소와 인덱스에 반영된다")
+    void upgradeView() {
+        IndexedMemberRepository offHeapRepository = new IndexedMemberRepository(new OffHeapMemberRepository());
+        offHeapRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        offHeapRepository.findById(1L).setGrade(Grade.VIP);
+
+        assertThat(offHeapRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(offHeapRepository.countByGrade(Grade.VIP)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 id로 다시 저장하면 이전 등급에서 빠진다")
+    void resave() {
+        Member before = new Member(1L, "memberA", Grade.BASIC);
+        memberRepository.save(before);
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+
+        before.setGrade(Grade.BASIC); // 더 이상 저장소의 회원이 아니므로 인덱스에 영향이 없어야 한다
+
+        assertThat(memberRepository.countByGrade(Grade.BASIC)).isEqualTo(0);
+        assertThat(memberRepository.countByGrade(Grade.VIP)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("조회 후 더 새로운 값이 저장됐으면 낡은 복사본의 setGrade는 저장소를 덮어쓰지 않는다")
+    void staleCopySetGrade() {
+        IndexedMemberRepository offHeapRepository = new IndexedMemberRepository(new OffHeapMemberRepository());
+        offHeapRepository.save(new Member(1L, "kim", Grade.BASIC));
+        Member stale = offHeapRepository.findById(1L);
+        offHeapRepository.save(new Member(1L, "lee", Grade.BASIC));
+
+        stale.setGrade(Grade.VIP);
+
+        Member stored = offHeapRepository.findById(1L);
+        assertThat(stored.getName()).isEqualTo("lee");
+        assertThat(stored.getGrade()).isEqualTo(Grade.BASIC);
+        assertThat(offHeapRepository.countByGrade(Grade.VIP)).isEqualTo(0);
+
+        stored.setGrade(Grade.VIP); // 최신 복사본은 그대로 반영된다
+        assertThat(offHeapRepository.findById(1L).getName()).isEqualTo("lee");
+        assertThat(offHeapRepository.countByGrade(Grade.VIP)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("이름 prefix로 이름순 최대 limit 명을 찾는다")
+    void findByNamePrefix() {
+        IndexedMemberRepository nameIndexed = new IndexedMemberRepository(new PrimitiveMemberRepository(), true);
+        nameIndexed.saveAll(List.of(
+                new Member(1L, "kim", Grade.BASIC),
+                new Member(2L, "kimchi", Grade.BASIC),
+                new Member(3L, "kim", Grade.VIP),
+                new Member(4L, "lee", Grade.BASIC),
+                new Member(5L, "ki", Grade.BASIC)));
+
+        assertThat(names(nameIndexed.findByNamePrefix("kim", 10))).containsExactly("kim", "kim", "kimchi");
+        assertThat(nameIndexed.findByNamePrefix("kim", 2)).extracting(Member::getId).containsExactly(1L, 3L);
+        assertThat(nameIndexed.findByNamePrefix("park", 10)).isEmpty();
+        assertThat(nameIndexed.nameIndexSize()).isEqualTo(5);
+        assertThatThrownBy(() -> nameIndexed.findByNamePrefix("kim", -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("setName, 재저장 시 이름 인덱스가 갱신된다")
+    void renameUpdatesNameIndex() {
+        IndexedMemberRepository nameIndexed = new IndexedMemberRepository(new PrimitiveMemberRepository(), true);
+        Member member = new Member(1L, "kim", Grade.BASIC);
+        nameIndexed.save(member);
+
+        member.setName("park");
+        assertThat(nameIndexed.findByNamePrefix("kim", 10)).isEmpty();
+        assertThat(nameIndexed.findByNamePrefix("pa", 10)).containsExactly(member);
+
+        nameIndexed.save(new Member(1L, "choi", Grade.BASIC));
+        assertThat(nameIndexed.findByNamePrefix("pa", 10)).isEmpty();
+        assertThat(names(nameIndexed.findByNamePrefix("c", 10))).containsExactly("choi");
+    }
+
+    @Test
+    @DisplayName("낡은 복사본을 바꿔도 이름 인덱스는 저장된 이름을 따른다")
+    void staleCopyKeepsNameIndex() {
+        IndexedMemberRepository nameIndexed = new IndexedMemberRepository(new OffHeapMemberRepository(), true);
+        nameIndexed.save(new Member(1L, "kim", Grade.BASIC));
+        Member stale = nameIndexed.findById(1L);
+        nameIndexed.save(new Member(1L, "lee", Grade.BASIC));
+
+        stale.setGrade(Grade.VIP);
+        stale.setName("park");
+
+        assertThat(names(nameIndexed.findByNamePrefix("lee", 10))).containsExactly("lee");
+        assertThat(nameIndexed.findByNamePrefix("kim", 10)).isEmpty();
+        assertThat(nameIndexed.findByNamePrefix("park", 10)).isEmpty();
+
+        nameIndexed.findById(1L).setName("choi");
+        assertThat(nameIndexed.findByNamePrefix("lee", 10)).isEmpty();
+        assertThat(names(nameIndexed.findByNamePrefix("ch", 10))).containsExactly("choi");
+    }
+
+    private List<String> names(List<Member> members) {
+        List<String> names = new ArrayList<>();
+        for (Member member : members) {
+            names.add(member.getName());
+        }
+        return names;
+    }
+
+    private List<Long> ids(PrimitiveIterator.OfLong iterator) {
+        List<Long> ids = new ArrayList<>();
+        iterator.forEachRemaining((long id) -> ids.add(id));
+        return ids;
+    }
+}
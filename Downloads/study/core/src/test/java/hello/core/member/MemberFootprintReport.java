@@ -0,0 +1,110 @@
+package hello.core.member;
+
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 저장소별 메모리 사용량 비교
+ * 실행: java -Xmx8g ... hello.core.member.MemberFootprintReport [회원 수, 기본 10,000,000]
+ * 힙은 GC 이후 사용량 차이로, off-heap 은 OffHeapMemberRepository.offHeapBytes() 로 측정한다.
+ * OffHeapMemberRepository 가 힙에 남기는 객체(버퍼 객체, 락, 필드)는 JOL 로 따로 센다.
+ * 마지막에 JOL 로 Member / CompactMember 객체 레이아웃과 회원당 객체 그래프 크기,
+ * IndexedMemberRepository 이름 인덱스의 회원당 추가 크기를 출력한다.
+ */
+public class MemberFootprintReport {
+
+    private static final int NAME_KINDS = 100_000;
+    private static final int JOL_SAMPLE = 100_000;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+
+        long before = usedHeap();
+        MemoryMemberRepository memoryMemberRepository = new MemoryMemberRepository();
+        fill(memoryMemberRepository, count);
+        long memoryHeap = usedHeap() - before;
+        System.out.printf("MemoryMemberRepository  heap=%,d bytes (%.1f bytes/member)%n",
+                memoryHeap, (double) memoryHeap / count);
+        memoryMemberRepository = null;
+
+        before = usedHeap();
+        CompactMemberRepository compactMemberRepository = new CompactMemberRepository(count, new NamePool());
+        fill(compactMemberRepository, count);
+        long compactHeap = usedHeap() - before;
+        System.out.printf("CompactMemberRepository heap=%,d bytes (%.1f bytes/member)%n",
+                compactHeap, (double) compactHeap / count);
+        compactMemberRepository = null;
+
+        before = usedHeap();
+        OffHeapMemberRepository offHeapMemberRepository = new OffHeapMemberRepository(count);
+        fill(offHeapMemberRepository, count);
+        long offHeapHeap = usedHeap() - before;
+        System.out.printf("OffHeapMemberRepository heap=%,d bytes, off-heap=%,d bytes (%.1f bytes/member)%n",
+                offHeapHeap, offHeapMemberRepository.offHeapBytes(),
+                (double) offHeapMemberRepository.offHeapBytes() / count);
+        System.out.printf("JOL OffHeapMemberRepository 힙 객체 그래프 %,d bytes%n",
+                GraphLayout.parseInstance(offHeapMemberRepository).totalSize());
+        offHeapMemberRepository = null;
+
+        printLayouts();
+    }
+
+    private static void printLayouts() {
+        System.out.println(ClassLayout.parseClass(Member.class).toPrintable());
+        System.out.println(ClassLayout.parseClass(CompactMember.class).toPrintable());
+
+        NamePool namePool = new NamePool();
+        List<Member> members = new ArrayList<>(JOL_SAMPLE);
+        List<CompactMember> compactMembers = new ArrayList<>(JOL_SAMPLE);
+        for (long id = 1; id <= JOL_SAMPLE; id++) {
+            Member member = newMember(id, JOL_SAMPLE / 10);
+            members.add(member);
+            compactMembers.add(new CompactMember(member.getId(), member.getName(), member.getGrade(), namePool));
+        }
+        long memberBytes = graphBytes(members.toArray());
+        long compactBytes = graphBytes(compactMembers.toArray());
+        System.out.printf("JOL Member        %.1f bytes/member (Member + Long + 이름 String + byte[])%n",
+                (double) memberBytes / JOL_SAMPLE);
+        System.out.printf("JOL CompactMember %.1f bytes/member (이름 %,d 종류를 %,d 명이 공유)%n",
+                (double) compactBytes / JOL_SAMPLE, namePool.size(), JOL_SAMPLE);
+
+        // 같은 회원을 이름 인덱스 있는 / 없는 저장소에 넣고 그래프 크기 차이를 잰다
+        // 저장하면 회원에 리스너(저장소)가 걸리므로 회원 객체는 따로 만들고, 크기가 같도록 이름 String 은 공유한다
+        IndexedMemberRepository plain = new IndexedMemberRepository(new PrimitiveMemberRepository(JOL_SAMPLE));
+        IndexedMemberRepository nameIndexed = new IndexedMemberRepository(new PrimitiveMemberRepository(JOL_SAMPLE), true);
+        for (Member member : members) {
+            plain.save(new Member(member.getId(), member.getName(), member.getGrade()));
+            nameIndexed.save(new Member(member.getId(), member.getName(), member.getGrade()));
+        }
+        long nameIndexBytes = GraphLayout.parseInstance(nameIndexed).totalSize() - GraphLayout.parseInstance(plain).totalSize();
+        System.out.printf("JOL 이름 인덱스   %.1f bytes/member (엔트리 %,d 개)%n",
+                (double) nameIndexBytes / nameIndexed.nameIndexSize(), nameIndexed.nameIndexSize());
+    }
+
+    // 담고 있는 참조 배열 자체는 빼고 회원 객체 그래프만 센다
+    private static long graphBytes(Object[] array) {
+        return GraphLayout.parseInstance((Object) array).totalSize() - ClassLayout.parseInstance(array).instanceSize();
+    }
+
+    private static void fill(MemberRepository memberRepository, int count) {
+        for (long id = 1; id <= count; id++) {
+            memberRepository.save(newMember(id, NAME_KINDS));
+        }
+    }
+
+    // 실제 데이터처럼 같은 이름이 많이 반복되지만, 회원마다 String 인스턴스는 따로 만든다
+    private static Member newMember(long id, int nameKinds) {
+        return new Member(id, "member" + (id % nameKinds), id % 10 == 0 ? Grade.VIP : Grade.BASIC);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
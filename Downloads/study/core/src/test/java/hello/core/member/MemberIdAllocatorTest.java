@@ -0,0 +1,203 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberIdAllocatorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발급해도 id가 겹치지 않는다")
+    void concurrentUnique() throws Exception {
+        MemberIdAllocator allocator = new MemberIdAllocator(directory.resolve("member-id.hwm"), 100, 10);
+        int threadCount = 8;
+        int perThread = 10_000;
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+
+        List<Future<long[]>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executorService.submit(() -> {
+                long[] ids = new long[perThread];
+                for (int i = 0; i < perThread; i++) {
+                    ids[i] = allocator.nextId();
+                }
+                return ids;
+            }));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<long[]> future : futures) {
+            for (long id : future.get()) {
+                assertThat(id).isLessThan(allocator.persistedMark());
+                ids.add(id);
+            }
+        }
+        executorService.shutdown();
+
+        assertThat(ids).hasSize(threadCount * perThread);
+        assertThat(ids).allMatch(id -> id > 0);
+    }
+
+    @Test
+    @DisplayName("재시작하면 이전에 발급했을 수 있는 id 다음부터 발급한다")
+    void resumeAfterRestart() {
+        Path file = directory.resolve("member-id.hwm");
+        MemberIdAllocator allocator = new MemberIdAllocator(file, 100, 10);
+        long last = 0;
+        for (int i = 0; i < 2_500; i++) {
+            last = allocator.nextId();
+        }
+        assertThat(allocator.persistedMark()).isEqualTo(3_001); // 1 + 1,000 씩 미리 기록
+
+        MemberIdAllocator restarted = new MemberIdAllocator(file, 100, 10);
+        assertThat(restarted.nextId()).isGreaterThan(last).isEqualTo(3_001);
+    }
+
+    @Test
+    @DisplayName("id 없이 join 하면 서비스가 id를 발급한다")
+    void joinAssignsId() {
+        MemberService memberService = new MemberServiceImpl(new ConcurrentMemberRepository(),
+                new MemberIdAllocator(directory.resolve("member-id.hwm")));
+        Member memberA = new Member(null, "memberA", Grade.VIP);
+        Member memberB = new Member(null, "memberB", Grade.BASIC);
+        Member memberC = new Member(100L, "memberC", Grade.BASIC);
+
+        memberService.join(memberA);
+        memberService.joinAll(List.of(memberB, memberC));
+
+        assertThat(memberA.getId()).isNotNull();
+        assertThat(memberB.getId()).isNotNull().isNotEqualTo(memberA.getId());
+        assertThat(memberC.getId()).isEqualTo(100L);
+        assertThat(memberService.findMember(memberB.getId())).isSameAs(memberB);
+    }
+
+    @Test
+    @DisplayName("직접 정한 id로 join 한 회원, 재시작 전에 저장된 회원의 id는 발급하지 않는다")
+    void skipExistingIds() {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        MemberService memberService = new MemberServiceImpl(memberRepository);
+        Member explicit = new Member(1L, "memberA", Grade.VIP);
+        memberService.join(explicit);
+        Member auto = new Member(null, "memberB", Grade.BASIC);
+        memberService.join(auto);
+
+        assertThat(auto.getId()).isNotEqualTo(1L);
+        assertThat(memberService.findMember(1L)).isSameAs(explicit);
+
+        // 파일 없는 발급기로 재시작 -> 다시 1번부터 발급하지만 저장소에 있는 id는 건너뛴다
+        MemberService restarted = new MemberServiceImpl(memberRepository);
+        Member afterRestart = new Member(null, "memberC", Grade.BASIC);
+        Member sameBatch = new Member(null, "memberD", Grade.BASIC);
+        restarted.joinAll(List.of(afterRestart, sameBatch, new Member(3L, "memberE", Grade.BASIC)));
+
+        assertThat(List.of(afterRestart.getId(), sameBatch.getId())).doesNotContain(1L, auto.getId(), 3L);
+        assertThat(memberService.findMember(1L)).isSameAs(explicit);
+        assertThat(memberService.findMember(auto.getId())).isSameAs(auto);
+    }
+
+    @Test
+    @DisplayName("id를 발급할 때 저장소를 조회하지 않는다, 시작할 때 가장 큰 id 만 한 번 읽는다")
+    void noRepositoryProbe() {
+        AtomicInteger lookups = new AtomicInteger();
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository() {
+            @Override
+            public Member findById(Long memberId) {
+                lookups.incrementAndGet();
+                return super.findById(memberId);
+            }
+        };
+        memberRepository.save(new Member(1_000L, "memberA", Grade.VIP));
+
+        MemberService memberService = new MemberServiceImpl(memberRepository);
+        List<Member> members = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Member member = new Member(null, "member" + i, Grade.BASIC);
+            memberService.join(member);
+            members.add(member);
+        }
+
+        assertThat(lookups).hasValue(0);
+        assertThat(members).allMatch(member -> member.getId() > 1_000L);
+    }
+
+    @Test
+    @DisplayName("저장소마다 가장 큰 id를 돌려준다, 비어 있으면 empty")
+    void maxId() {
+        List<MemberRepository> repositories = List.of(new ConcurrentMemberRepository(), new PrimitiveMemberRepository(),
+                new CompactMemberRepository(), new OffHeapMemberRepository(), new VersionedMemberRepository(),
+                new IndexedMemberRepository(new CachingMemberRepository(new PrimitiveMemberRepository(), 1 << 20)));
+        for (MemberRepository memberRepository : repositories) {
+            assertThat(memberRepository.maxId()).as("%s", memberRepository).isEmpty();
+            for (long id : new long[]{-5L, 0L, 7L, 3L}) {
+                memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+            }
+            assertThat(memberRepository.maxId()).as("%s", memberRepository).hasValue(7L);
+        }
+    }
+
+    @Test
+    @DisplayName("이미 예약된 구간 안의 id를 observe 하면 그 id는 발급하지 않는다")
+    void observeInsideReservedBlock() throws Exception {
+        MemberIdAllocator allocator = new MemberIdAllocator(null, 100, 10);
+        assertThat(allocator.nextId()).isEqualTo(1); // 이 스레드가 [1, 101) 구간을 예약
+
+        // 다른 스레드도 자기 구간을 예약해두고, observe 뒤에 발급
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        long otherFirst = executorService.submit(allocator::nextId).get(); // [101, 201)
+        allocator.observe(50);
+        allocator.observe(otherFirst + 10);
+        long[] other = executorService.submit(() -> {
+            long[] ids = new long[200];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = allocator.nextId();
+            }
+            return ids;
+        }).get();
+        executorService.shutdown();
+
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(allocator.nextId());
+        }
+        for (long id : other) {
+            ids.add(id);
+        }
+        assertThat(ids).hasSize(400).doesNotContain(50L, otherFirst + 10);
+    }
+
+    @Test
+    @DisplayName("Long.MAX_VALUE 를 observe 하면 더 발급하지 않고 예외")
+    void exhausted() {
+        MemberIdAllocator allocator = new MemberIdAllocator(null, 100, 10);
+        allocator.observe(Long.MAX_VALUE);
+
+        assertThatThrownBy(allocator::nextId).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("observe 한 id 뒤에서 다음 구간을 예약하고, 파일에도 그 뒤까지 기록한다")
+    void observe() {
+        Path file = directory.resolve("member-id.hwm");
+        MemberIdAllocator allocator = new MemberIdAllocator(file, 100, 10);
+
+        allocator.observe(5_000);
+        allocator.observe(10); // 이미 지난 id는 영향 없음
+
+        assertThat(allocator.nextId()).isEqualTo(5_001);
+        assertThat(new MemberIdAllocator(file, 100, 10).nextId()).isGreaterThan(5_001);
+    }
+}
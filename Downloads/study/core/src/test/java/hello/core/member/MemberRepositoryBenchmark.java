@@ -0,0 +1,91 @@
+package hello.core.member;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 저장소 구현별 처리량 비교 (JMH)
+ * 실행: main() 실행 -> 1, 2, 4 ... 코어 수 만큼 스레드를 늘려가며 측정
+ *
+ * 기존 HashMap 저장소는 동시 put 시 내부 구조가 깨질 수 있으므로
+ * 미리 넣어둔 id만 덮어쓰도록(리사이즈가 일어나지 않도록) 해서 비교한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MemberRepositoryBenchmark {
+
+    private static final int MEMBER_COUNT = 100_000;
+
+    @Param({"memory", "concurrent", "primitive"})
+    public String repositoryType;
+
+    private MemberRepository repository;
+    private Member[] members;
+
+    @Setup
+    public void setUp() {
+        repository = createRepository();
+        members = new Member[MEMBER_COUNT];
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            members[i] = new Member((long) i, "member" + i, i % 10 == 0 ? Grade.VIP : Grade.BASIC);
+            repository.save(members[i]);
+        }
+    }
+
+    private MemberRepository createRepository() {
+        switch (repositoryType) {
+            case "concurrent":
+                return new ConcurrentMemberRepository(MEMBER_COUNT);
+            case "primitive":
+                return new PrimitiveMemberRepository(MEMBER_COUNT);
+            default:
+                return new MemoryMemberRepository();
+        }
+    }
+
+    // 읽기 90% : 쓰기 10%
+    @Benchmark
+    public void readMostly(Blackhole bh) {
+        int index = ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+        if (index % 10 == 0) {
+            repository.save(members[index]);
+        } else {
+            bh.consume(repository.findById(members[index].getId()));
+        }
+    }
+
+    @Benchmark
+    public Member findById() {
+        int index = ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+        return repository.findById(members[index].getId());
+    }
+
+    // long 키 조회: primitive 저장소는 박싱 없이, 나머지는 기본 구현에서 박싱이 일어난다
+    @Benchmark
+    public Member findByPrimitiveId() {
+        long id = ThreadLocalRandom.current().nextInt(MEMBER_COUNT);
+        return repository.findById(id);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            Options options = new OptionsBuilder()
+                    .include(MemberRepositoryBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -5,6 +5,8 @@ import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 public class MemberServiceTest {
 
     MemberService memberService;
@@ -38,4 +40,18 @@ public class MemberServiceTest {
         Assertions.assertThat(member).isEqualTo(findMeber);
 
     }
-}
\ No newline at end of file
+
+    @Test
+    void joinAll() {
+        //given
+        Member memberA = new Member(1L, "memberA", Grade.VIP);
+        Member memberB = new Member(2L, "memberB", Grade.BASIC);
+
+        //when
+        memberService.joinAll(List.of(memberA, memberB));
+        List<Member> findMembers = memberService.findMembers(new long[]{2L, 999L, 1L});
+
+        //then
+        Assertions.assertThat(findMembers).containsExactly(memberB, null, memberA);
+    }
+}
@@ -0,0 +1,90 @@
+package hello.core.member;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.OptionalLong;
+
+/**
+ * 가져오기 / 내보내기 처리량 (members/sec) 과 힙 사용량 측정
+ * 실행: java -Xmx256m ... hello.core.member.MemberTransferBenchmark [회원 수, 기본 50,000,000]
+ * 회원은 iterator로 그때그때 만들고, 가져온 회원은 개수만 세므로 힙이 일정하게 유지되는지 확인할 수 있다.
+ */
+public class MemberTransferBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long count = args.length > 0 ? Long.parseLong(args[0]) : 50_000_000L;
+        for (MemberFormat format : MemberFormat.values()) {
+            Path file = Files.createTempFile("members", "." + format.name().toLowerCase());
+            try {
+                long start = System.nanoTime();
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                    new MemberExporter(format).export(generate(count), channel);
+                }
+                report(format + " export", count, start, Files.size(file));
+
+                CountingRepository counter = new CountingRepository();
+                start = System.nanoTime();
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    new MemberImporter(format).importTo(channel, counter);
+                }
+                report(format + " import", counter.count, start, Files.size(file));
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static Iterator<Member> generate(long count) {
+        return new Iterator<>() {
+            private long id = 0;
+
+            @Override
+            public boolean hasNext() {
+                return id < count;
+            }
+
+            @Override
+            public Member next() {
+                id++;
+                return new Member(id, "member" + (id % 100_000), id % 10 == 0 ? Grade.VIP : Grade.BASIC);
+            }
+        };
+    }
+
+    private static void report(String name, long count, long startNanos, long fileBytes) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Runtime runtime = Runtime.getRuntime();
+        System.out.printf("%-15s %,d members in %.1fs -> %,.0f members/sec, file=%,d bytes, heap used=%,d KB%n",
+                name, count, seconds, count / seconds, fileBytes, (runtime.totalMemory() - runtime.freeMemory()) / 1024);
+    }
+
+    private static class CountingRepository implements MemberRepository {
+
+        private long count;
+
+        @Override
+        public void save(Member member) {
+            count++;
+        }
+
+        @Override
+        public void saveAll(Collection<Member> members) {
+            count += members.size();
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            return null;
+        }
+
+        @Override
+        public OptionalLong maxId() {
+            return OptionalLong.empty();
+        }
+    }
+}
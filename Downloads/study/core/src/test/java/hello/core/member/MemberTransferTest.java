@@ -0,0 +1,80 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MemberTransferTest {
+
+    List<Member> members = List.of(
+            new Member(1L, "memberA", Grade.VIP),
+            new Member(2L, "회원 \"B\"\\\n\t", Grade.BASIC),
+            new Member(3L, null, null),
+            new Member(-4L, "x".repeat(300), Grade.VIP));
+
+    @ParameterizedTest
+    @EnumSource(MemberFormat.class)
+    @DisplayName("청크 경계에 걸친 레코드, 버퍼보다 큰 레코드도 그대로 복원되어야 한다")
+    void roundTrip(MemberFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = new MemberExporter(format, 32).export(members.iterator(), Channels.newChannel(out));
+
+        PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+        long imported = new MemberImporter(format, 16, 3)
+                .importTo(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), memberRepository);
+
+        assertThat(exported).isEqualTo(4);
+        assertThat(imported).isEqualTo(4);
+        for (Member member : members) {
+            Member imported1 = memberRepository.findById(member.getId());
+            assertThat(imported1.getName()).isEqualTo(member.getName());
+            assertThat(imported1.getGrade()).isEqualTo(member.getGrade());
+        }
+    }
+
+    @Test
+    @DisplayName("NDJSON은 필드 순서, 공백, 모르는 필드, 빈 줄을 허용한다")
+    void lenientJson() throws Exception {
+        String json = "{ \"grade\" : \"VIP\", \"extra\": 12, \"name\": \"A\\u00e9\", \"id\": 7 }\n\n{\"id\":8}\n";
+
+        PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+        new MemberImporter(MemberFormat.NDJSON).importTo(
+                Channels.newChannel(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8))), memberRepository);
+
+        assertThat(memberRepository.findById(7L).getName()).isEqualTo("Aé");
+        assertThat(memberRepository.findById(7L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(8L).getGrade()).isNull();
+    }
+
+    @Test
+    @DisplayName("NDJSON 마지막 줄에 줄바꿈이 없어도 마지막 회원까지 가져온다")
+    void noTrailingNewline() throws Exception {
+        byte[] json = "{\"id\":1,\"name\":\"memberA\"}\n{\"id\":2,\"name\":\"memberB\",\"grade\":\"VIP\"}".getBytes(StandardCharsets.UTF_8);
+        PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+
+        long imported = new MemberImporter(MemberFormat.NDJSON, 16, 1)
+                .importTo(Channels.newChannel(new ByteArrayInputStream(json)), memberRepository);
+
+        assertThat(imported).isEqualTo(2);
+        assertThat(memberRepository.findById(2L).getGrade()).isEqualTo(Grade.VIP);
+    }
+
+    @Test
+    @DisplayName("파일이 레코드 중간에서 끝나면 예외")
+    void truncated() {
+        byte[] truncated = "{\"id\":1}\n{\"id\":2".getBytes(StandardCharsets.UTF_8);
+
+        assertThatThrownBy(() -> new MemberImporter(MemberFormat.NDJSON)
+                .importTo(Channels.newChannel(new ByteArrayInputStream(truncated)), new PrimitiveMemberRepository()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,52 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OffHeapMemberRepositoryTest {
+
+    OffHeapMemberRepository memberRepository = new OffHeapMemberRepository(16);
+
+    @Test
+    void saveAndFind() {
+        memberRepository.save(new Member(1L, "회원A", Grade.VIP));
+
+        Member findMember = memberRepository.findById(1L);
+        assertThat(findMember.getId()).isEqualTo(1L);
+        assertThat(findMember.getName()).isEqualTo("회원A");
+        assertThat(findMember.getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.findById(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("조회 결과는 뷰이므로 수정 후 save 해야 반영된다")
+    void update() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        Member member = memberRepository.findById(1L);
+        member.setGrade(Grade.VIP);
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+
+        memberRepository.save(member);
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        assertThat(memberRepository.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("컬럼과 인덱스가 늘어나도 모든 회원을 찾을 수 있어야 한다")
+    void grow() {
+        for (long id = 0; id < 50_000; id++) {
+            memberRepository.save(new Member(id, "member" + (id % 100), id % 2 == 0 ? Grade.VIP : null));
+        }
+
+        assertThat(memberRepository.size()).isEqualTo(50_000);
+        for (long id = 0; id < 50_000; id++) {
+            Member member = memberRepository.findById(id);
+            assertThat(member.getName()).isEqualTo("member" + (id % 100));
+            assertThat(member.getGrade()).isEqualTo(id % 2 == 0 ? Grade.VIP : null);
+        }
+        assertThat(memberRepository.offHeapBytes()).isGreaterThan(50_000L * 13);
+    }
+}
@@ -0,0 +1,55 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PrimitiveMemberRepositoryTest {
+
+    PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+
+    @Test
+    void saveAndFind() {
+        Member member = new Member(1L, "memberA", Grade.VIP);
+        memberRepository.save(member);
+
+        assertThat(memberRepository.findById(1L)).isSameAs(member);
+        assertThat(memberRepository.findById(Long.valueOf(1L))).isSameAs(member);
+        assertThat(memberRepository.findById(2L)).isNull();
+    }
+
+    @Test
+    @DisplayName("0, 음수 id와 리사이즈 이후에도 조회가 되어야 한다")
+    void resize() {
+        for (long id = -1_000; id < 100_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        assertThat(memberRepository.size()).isEqualTo(101_000);
+        assertThat(memberRepository.findById(0L).getId()).isEqualTo(0L);
+        assertThat(memberRepository.findById(-1_000L).getId()).isEqualTo(-1_000L);
+        assertThat(memberRepository.findById(99_999L).getId()).isEqualTo(99_999L);
+    }
+
+    @Test
+    @DisplayName("같은 id로 다시 저장하면 덮어쓴다")
+    void overwrite() {
+        memberRepository.save(new Member(1L, "before", Grade.BASIC));
+        memberRepository.save(new Member(1L, "after", Grade.VIP));
+
+        assertThat(memberRepository.size()).isEqualTo(1);
+        assertThat(memberRepository.findById(1L).getName()).isEqualTo("after");
+    }
+
+    @Test
+    void saveAllAndFindAll() {
+        Member memberA = new Member(1L, "memberA", Grade.VIP);
+        Member memberB = new Member(2L, "memberB", Grade.BASIC);
+        memberRepository.saveAll(List.of(memberA, memberB));
+
+        assertThat(memberRepository.findAllById(new long[]{2L, 3L, 1L})).containsExactly(memberB, null, memberA);
+    }
+}
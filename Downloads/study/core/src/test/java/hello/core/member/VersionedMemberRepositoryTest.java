@@ -0,0 +1,136 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class VersionedMemberRepositoryTest {
+
+    VersionedMemberRepository memberRepository = new VersionedMemberRepository();
+
+    @Test
+    @DisplayName("스냅샷은 이후의 저장, 등급 변경을 보지 않는다")
+    void snapshotIsolation() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+
+        try (MemberSnapshot snapshot = memberRepository.snapshot()) {
+            memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+            memberRepository.save(new Member(3L, "memberC", Grade.BASIC));
+
+            assertThat(snapshot.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+            assertThat(snapshot.findById(3L)).isNull();
+            assertThat(ids(snapshot)).containsExactlyInAnyOrder(1L, 2L);
+        }
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+    }
+
+    @Test
+    @DisplayName("저장된 회원, 스냅샷이 돌려준 회원을 수정해도 저장소는 바뀌지 않는다")
+    void readOnlyCopies() {
+        Member member = new Member(1L, "memberA", Grade.BASIC);
+        memberRepository.save(member);
+        member.setGrade(Grade.VIP);
+
+        try (MemberSnapshot snapshot = memberRepository.snapshot()) {
+            snapshot.findById(1L).setGrade(Grade.VIP);
+            assertThat(snapshot.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+        }
+        assertThat(memberRepository.findById(1L).getGrade()).isEqualTo(Grade.BASIC);
+    }
+
+    @Test
+    @DisplayName("스냅샷을 닫으면 더 이상 필요 없는 이전 버전이 정리된다")
+    void pruneOldVersions() {
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        assertThat(memberRepository.versionCount(1L)).isEqualTo(1);
+
+        MemberSnapshot snapshot = memberRepository.snapshot();
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        assertThat(memberRepository.versionCount(1L)).isEqualTo(2); // 최신 + 스냅샷이 보는 버전
+        assertThat(memberRepository.activeSnapshotCount()).isEqualTo(1);
+
+        snapshot.close();
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        assertThat(memberRepository.versionCount(1L)).isEqualTo(1);
+        assertThat(memberRepository.activeSnapshotCount()).isZero();
+        assertThatThrownBy(() -> snapshot.findById(1L)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("saveAll 배치는 스냅샷에 한꺼번에 보인다")
+    void batchIsAtomic() {
+        long before;
+        try (MemberSnapshot snapshot = memberRepository.snapshot()) {
+            before = snapshot.version();
+        }
+        memberRepository.saveAll(List.of(new Member(1L, "memberA", Grade.BASIC), new Member(2L, "memberB", Grade.VIP)));
+
+        try (MemberSnapshot snapshot = memberRepository.snapshot()) {
+            assertThat(snapshot.version()).isEqualTo(before + 1);
+            assertThat(ids(snapshot)).containsExactlyInAnyOrder(1L, 2L);
+        }
+    }
+
+    @Test
+    @DisplayName("순회 도중 다른 스레드가 계속 저장해도 스냅샷 시점의 회원만 정확히 보인다")
+    void scanWhileWriting() throws Exception {
+        int initial = 10_000;
+        for (long id = 0; id < initial; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (MemberSnapshot snapshot = memberRepository.snapshot()) {
+            Future<?> writer = executorService.submit(() -> {
+                for (long id = 0; id < initial * 2; id++) {
+                    memberRepository.save(new Member(id, "member" + id, Grade.VIP));
+                }
+            });
+
+            int count = 0;
+            for (Member member : snapshot) {
+                assertThat(member.getGrade()).isEqualTo(Grade.BASIC);
+                count++;
+            }
+            writer.get();
+            assertThat(count).isEqualTo(initial);
+        } finally {
+            executorService.shutdown();
+        }
+        assertThat(memberRepository.size()).isEqualTo(initial * 2);
+    }
+
+    @Test
+    @DisplayName("버전을 관리하지 않는 저장소는 스냅샷을 지원하지 않는다")
+    void unsupported() {
+        assertThat(new ConcurrentMemberRepository()).isNotInstanceOf(SnapshotCapable.class);
+        CachingMemberRepository cached = new CachingMemberRepository(new ConcurrentMemberRepository(), 1024);
+        assertThat(SnapshotCapable.supports(cached)).isFalse();
+        assertThatThrownBy(cached::snapshot).isInstanceOf(IllegalStateException.class);
+
+        IndexedMemberRepository indexed = new IndexedMemberRepository(
+                new CachingMemberRepository(new VersionedMemberRepository(), 1024));
+        assertThat(SnapshotCapable.supports(indexed)).isTrue();
+        try (MemberSnapshot snapshot = indexed.snapshot()) {
+            assertThat(snapshot.version()).isZero();
+        }
+    }
+
+    private List<Long> ids(MemberSnapshot snapshot) {
+        List<Long> ids = new ArrayList<>();
+        for (Member member : snapshot) {
+            ids.add(member.getId());
+        }
+        return ids;
+    }
+}
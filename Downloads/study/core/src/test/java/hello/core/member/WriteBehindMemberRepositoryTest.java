@@ -0,0 +1,254 @@
+package hello.core.member;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+class WriteBehindMemberRepositoryTest {
+
+    @Test
+    @DisplayName("save 직후 바로 조회되고, flush 하면 원래 저장소에 저장된다")
+    void readYourWrites() throws Exception {
+        SlowRepository slow = new SlowRepository();
+        slow.gate.countDown();
+        try (WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow)) {
+            Member member = new Member(1L, "memberA", Grade.VIP);
+            memberRepository.save(member);
+            assertThat(memberRepository.findById(1L)).isSameAs(member);
+
+            memberRepository.flush();
+            assertThat(slow.findById(1L)).isSameAs(member);
+            assertThat(memberRepository.pendingCount()).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("저장 전에 같은 id를 여러 번 저장하면 마지막 값 하나만 저장된다")
+    void coalesce() throws Exception {
+        SlowRepository slow = new SlowRepository();
+        try (WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 100, 100, 10)) {
+            memberRepository.save(new Member(0L, "blocker", Grade.BASIC));
+            slow.awaitFirstWrite();
+            for (int i = 0; i < 10; i++) {
+                memberRepository.save(new Member(1L, "memberA", i % 2 == 0 ? Grade.BASIC : Grade.VIP));
+            }
+            slow.gate.countDown();
+            memberRepository.flush();
+
+            assertThat(memberRepository.coalescedCount()).isEqualTo(9);
+            assertThat(slow.savedCount.get()).isEqualTo(2);
+            assertThat(slow.findById(1L).getGrade()).isEqualTo(Grade.VIP);
+        }
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 자리가 날 때까지 save 가 기다린다")
+    void backpressure() throws Exception {
+        SlowRepository slow = new SlowRepository();
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        try (WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 2, 1, 10)) {
+            memberRepository.save(new Member(0L, "blocker", Grade.BASIC));
+            slow.awaitFirstWrite();
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+            memberRepository.save(new Member(2L, "memberB", Grade.VIP)); // 이미 대기 중인 id는 기다리지 않는다
+
+            Future<?> blocked = executorService.submit(() -> memberRepository.save(new Member(3L, "memberC", Grade.BASIC)));
+            assertThatThrownBy(() -> blocked.get(100, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            slow.gate.countDown();
+            blocked.get(5, TimeUnit.SECONDS);
+            memberRepository.flush();
+            assertThat(slow.findById(3L)).isNotNull();
+        } finally {
+            executorService.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("저장이 실패하면 대기열에 남겨두고 다시 시도한다")
+    void retryOnFailure() throws Exception {
+        SlowRepository slow = new SlowRepository();
+        slow.gate.countDown();
+        slow.failures.set(2);
+        try (WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 100, 100, 1)) {
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            memberRepository.flush();
+
+            assertThat(memberRepository.failureCount()).isEqualTo(2);
+            assertThat(slow.findById(1L)).isNotNull();
+        }
+    }
+
+    @Test
+    @DisplayName("저장이 maxRetries 번 넘게 실패하면 멈추고, flush / save / close 가 기다리지 않고 원인을 던진다")
+    void giveUpAfterMaxRetries() {
+        SlowRepository slow = new SlowRepository();
+        slow.gate.countDown();
+        slow.failures.set(Integer.MAX_VALUE);
+        WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 100, 100, 1, 3);
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+
+        assertThatThrownBy(memberRepository::flush)
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("disk error");
+        assertThat(memberRepository.failureCount()).isEqualTo(4);
+        assertThat(memberRepository.findById(1L)).isNotNull(); // 저장 못 한 회원도 조회는 된다
+        assertThatThrownBy(() -> memberRepository.save(new Member(2L, "memberB", Grade.BASIC)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(memberRepository::close).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("재시도를 기다리다 인터럽트되면 재시도 횟수를 소진하지 않고 멈춘다")
+    void interruptStopsRetries() throws Exception {
+        SlowRepository slow = new SlowRepository();
+        slow.gate.countDown();
+        slow.failures.set(Integer.MAX_VALUE);
+        WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 100, 100, 60_000, 1_000);
+        memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+        slow.firstWrite.await();
+
+        interruptWriters();
+
+        assertThatThrownBy(memberRepository::flush)
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("disk error");
+        assertThat(memberRepository.failureCount()).isLessThanOrEqualTo(2); // 첫 실패 + 멈추면서 하나
+        assertThat(memberRepository.findById(1L)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("delegate 가 Error 를 던져도 대기열이 가득 차 기다리던 save 와 flush 가 깨어난다")
+    void errorStopsWriter() throws Exception {
+        SlowRepository slow = new SlowRepository() {
+            @Override
+            public void saveAll(Collection<Member> members) {
+                super.saveAll(members);
+                throw new OutOfMemoryError("test");
+            }
+        };
+        ExecutorService executorService = Executors.newSingleThreadExecutor();
+        WriteBehindMemberRepository memberRepository = new WriteBehindMemberRepository(slow, 1, 1, 10);
+        try {
+            memberRepository.save(new Member(0L, "blocker", Grade.BASIC));
+            slow.awaitFirstWrite();
+            memberRepository.save(new Member(1L, "memberA", Grade.BASIC));
+            Future<?> blocked = executorService.submit(() -> memberRepository.save(new Member(2L, "memberB", Grade.BASIC)));
+
+            slow.gate.countDown();
+            assertThatThrownBy(() -> blocked.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(memberRepository::flush).hasCauseInstanceOf(OutOfMemoryError.class);
+            assertThat(memberRepository.failure()).isInstanceOf(OutOfMemoryError.class);
+        } finally {
+            executorService.shutdown();
+        }
+        assertThatThrownBy(memberRepository::close).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("스프링 컨테이너가 종료되면(@PreDestroy) 대기 중인 회원을 모두 저장하고 닫힌다")
+    void drainOnShutdown() {
+        AnnotationConfigApplicationContext ac = new AnnotationConfigApplicationContext(WriteBehindConfig.class);
+        WriteBehindMemberRepository memberRepository = ac.getBean(WriteBehindMemberRepository.class);
+        SlowRepository slow = ac.getBean(SlowRepository.class);
+
+        for (long id = 0; id < 1_000; id++) {
+            memberRepository.save(new Member(id, "member" + id, Grade.BASIC));
+        }
+        slow.gate.countDown();
+        ac.close();
+
+        assertThat(slow.store).hasSize(1_000);
+        assertThatThrownBy(() -> memberRepository.save(new Member(1L, "memberA", Grade.VIP)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Configuration
+    static class WriteBehindConfig {
+
+        @Bean
+        SlowRepository slowRepository() {
+            return new SlowRepository();
+        }
+
+        @Bean
+        WriteBehindMemberRepository writeBehindMemberRepository() {
+            return new WriteBehindMemberRepository(slowRepository(), 10_000, 10, 10);
+        }
+    }
+
+    // 백그라운드 스레드는 밖에 드러나지 않으므로 이름으로 찾는다 (다른 테스트에서 남은 스레드는 기다리는 중이라 영향 없다)
+    private static void interruptWriters() {
+        Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("member-write-behind"))
+                .forEach(Thread::interrupt);
+    }
+
+    /**
+     * gate 가 열릴 때까지 saveAll 이 멈춰있는 저장소 (디스크가 느린 상황 흉내)
+     */
+    static class SlowRepository implements MemberRepository {
+
+        final Map<Long, Member> store = new ConcurrentHashMap<>();
+        final CountDownLatch gate = new CountDownLatch(1);
+        final CountDownLatch firstWrite = new CountDownLatch(1);
+        final AtomicInteger savedCount = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+
+        @Override
+        public void save(Member member) {
+            saveAll(List.of(member));
+        }
+
+        @Override
+        public void saveAll(Collection<Member> members) {
+            firstWrite.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failures.getAndUpdate(n -> Math.max(n - 1, 0)) > 0) {
+                throw new IllegalStateException("disk error");
+            }
+            for (Member member : members) {
+                store.put(member.getId(), member);
+                savedCount.incrementAndGet();
+            }
+        }
+
+        @Override
+        public Member findById(Long memberId) {
+            return store.get(memberId);
+        }
+
+        @Override
+        public OptionalLong maxId() {
+            return store.keySet().stream().mapToLong(Long::longValue).max();
+        }
+
+        void awaitFirstWrite() throws InterruptedException {
+            assertThat(firstWrite.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+}
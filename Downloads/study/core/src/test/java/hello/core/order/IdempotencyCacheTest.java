@@ -0,0 +1,166 @@
+package hello.core.order;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger created = new AtomicInteger();
+
+    @Test
+    @DisplayName("같은 키로 다시 요청하면 계산하지 않고 처음 결과를 돌려준다")
+    void repeatedKey() {
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, now::get);
+
+        Order first = cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+        Order retry = cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+
+        assertThat(created).hasValue(1);
+        assertThat(retry.toString()).isEqualTo(first.toString());
+        assertThat(retry).isNotSameAs(first); // Order 는 가변이라 복사본
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 처음 계산이 끝날 때까지 기다렸다가 같은 결과를 받는다")
+    void singleFlight() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, now::get);
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<Order> leader = executor.submit(() -> cache.getOrCreate("k", 1L, "itemA", 10000, () -> {
+                computing.countDown();
+                await(release);
+                return createOrder();
+            }));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            List<Future<Order>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(executor.submit(() -> cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder)));
+            }
+            Thread.sleep(50);
+            assertThat(followers).noneMatch(Future::isDone);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS).getDiscountPrice()).isEqualTo(1000);
+            for (Future<Order> follower : followers) {
+                assertThat(follower.get(5, TimeUnit.SECONDS).getDiscountPrice()).isEqualTo(1000);
+            }
+            assertThat(created).hasValue(1);
+            assertThat(cache.missCount()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("ttl 이 지나면 다시 계산한다")
+    void expire() {
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, now::get);
+        cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+
+        now.addAndGet(999);
+        cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+        assertThat(created).hasValue(1);
+
+        now.addAndGet(1);
+        cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+        assertThat(created).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("최대 개수를 넘으면 먼저 들어온 키부터 버린다")
+    void bounded() {
+        IdempotencyCache cache = new IdempotencyCache(3, 1_000, now::get);
+        for (int i = 0; i < 10; i++) {
+            cache.getOrCreate("k" + i, 1L, "itemA", 10000, this::createOrder);
+        }
+
+        assertThat(cache.size()).isEqualTo(3);
+        assertThat(cache.evictionCount()).isEqualTo(7);
+        cache.getOrCreate("k9", 1L, "itemA", 10000, this::createOrder);
+        assertThat(created).hasValue(10); // 최근 키는 남아있다
+        cache.getOrCreate("k0", 1L, "itemA", 10000, this::createOrder);
+        assertThat(created).hasValue(11); // 버려진 키는 다시 계산
+    }
+
+    @Test
+    @DisplayName("계산이 실패하면 저장하지 않고, 재시도하면 다시 계산한다")
+    void failureNotCached() {
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, now::get);
+
+        assertThatThrownBy(() -> cache.getOrCreate("k", 1L, "itemA", 10000, () -> {
+            throw new IllegalStateException("실패");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder)).isNotNull();
+        assertThat(created).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("한도가 넘쳐도 계산 중인 키는 버리지 않는다 (중복 요청이 다시 계산하지 않는다)")
+    void keepInFlightOnOverflow() throws Exception {
+        IdempotencyCache cache = new IdempotencyCache(1, 1_000, now::get);
+        CountDownLatch computing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Order> leader = executor.submit(() -> cache.getOrCreate("a", 1L, "itemA", 10000, () -> {
+                computing.countDown();
+                await(release);
+                return createOrder();
+            }));
+            assertThat(computing.await(5, TimeUnit.SECONDS)).isTrue();
+
+            cache.getOrCreate("b", 1L, "itemA", 10000, this::createOrder);
+            cache.getOrCreate("c", 1L, "itemA", 10000, this::createOrder); // 한도 1 : b 는 버리고 계산 중인 a 는 남긴다
+            Future<Order> duplicate = executor.submit(() -> cache.getOrCreate("a", 1L, "itemA", 10000, this::createOrder));
+
+            release.countDown();
+            assertThat(duplicate.get(5, TimeUnit.SECONDS).toString()).isEqualTo(leader.get(5, TimeUnit.SECONDS).toString());
+            assertThat(created).hasValue(3); // a, b, c 한 번씩
+            assertThat(cache.evictionCount()).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void differentRequestWithSameKey() {
+        IdempotencyCache cache = new IdempotencyCache(100, 1_000, now::get);
+        cache.getOrCreate("k", 1L, "itemA", 10000, this::createOrder);
+
+        assertThatThrownBy(() -> cache.getOrCreate("k", 1L, "itemA", 20000, this::createOrder))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private Order createOrder() {
+        created.incrementAndGet();
+        return new Order(1L, "itemA", 10000, 1000);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package hello.core.order;
+
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JournalOrderRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("재시작하면 저널을 재생해서 저장한 순서대로 주문을 읽는다")
+    void replay() {
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            orderRepository.save(new Order(1L, "itemA", 10000, 1000));
+            orderRepository.saveAll(List.of(new Order(2L, "itemB", 20000, 0), new Order(null, null, 0, 0)));
+            orderRepository.save(new Order(1L, "itemA", 30000, 1000));
+        }
+
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            assertThat(orderRepository.count()).isEqualTo(4);
+            assertThat(toStrings(orderRepository)).containsExactly(
+                    new Order(1L, "itemA", 10000, 1000).toString(),
+                    new Order(2L, "itemB", 20000, 0).toString(),
+                    new Order(null, null, 0, 0).toString(),
+                    new Order(1L, "itemA", 30000, 1000).toString());
+
+            orderRepository.save(new Order(3L, "itemC", 5000, 0));
+            assertThat(orderRepository.count()).isEqualTo(5);
+        }
+    }
+
+    @Test
+    @DisplayName("회원 id 가 Long.MIN_VALUE 여도 회원 없음과 구분해서 복구한다")
+    void minValueMemberId() {
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            orderRepository.save(new Order(Long.MIN_VALUE, "itemA", 10000, 0));
+            orderRepository.save(new Order(null, "itemA", 10000, 0));
+            orderRepository.save(new Order(0L, "itemA", 10000, 0));
+        }
+
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            assertThat(toStrings(orderRepository)).containsExactly(
+                    new Order(Long.MIN_VALUE, "itemA", 10000, 0).toString(),
+                    new Order(null, "itemA", 10000, 0).toString(),
+                    new Order(0L, "itemA", 10000, 0).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("쓰다가 끊긴 마지막 레코드는 버리고 그 앞까지만 복구한다")
+    void tornTail() throws Exception {
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            orderRepository.save(new Order(1L, "itemA", 10000, 1000));
+            orderRepository.save(new Order(2L, "itemB", 20000, 0));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(directory.resolve(JournalOrderRepository.ORDERS_FILE).toFile(), "rw")) {
+            file.seek(JournalOrderRepository.RECORD_SIZE + 14); // 두 번째 레코드의 가격 일부
+            file.writeByte(0x7F);
+            file.setLength(file.length() + 7); // 반쯤 쓰인 세 번째 레코드
+        }
+
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            assertThat(orderRepository.count()).isEqualTo(1);
+            orderRepository.save(new Order(3L, "itemC", 5000, 0));
+        }
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            assertThat(toStrings(orderRepository)).containsExactly(
+                    new Order(1L, "itemA", 10000, 1000).toString(),
+                    new Order(3L, "itemC", 5000, 0).toString());
+        }
+    }
+
+    @Test
+    @DisplayName("동시에 저장한 주문들은 더 적은 횟수의 기록(group commit)으로 묶이고 모두 복구된다")
+    void groupCommit() throws Exception {
+        int threadCount = 8;
+        int perThread = 2_000;
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                long memberId = t;
+                futures.add(executorService.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        orderRepository.save(new Order(memberId, "item" + (i % 10), i, 0));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+            executorService.shutdown();
+
+            assertThat(orderRepository.commitCount()).isLessThanOrEqualTo((long) threadCount * perThread);
+        }
+
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            assertThat(orderRepository.count()).isEqualTo((long) threadCount * perThread);
+            long[] lastPrice = new long[threadCount];
+            Arrays.fill(lastPrice, -1);
+            orderRepository.forEach(order -> {
+                int memberId = order.getMemberId().intValue();
+                assertThat(order.getItemPrice()).isEqualTo(lastPrice[memberId] + 1); // 스레드별 순서 유지
+                lastPrice[memberId] = order.getItemPrice();
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("주문 서비스에 저장소를 주면 createOrder, createOrders 결과가 기록된다")
+    void orderServiceRecordsOrders() {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            OrderService orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy(), orderRepository);
+
+            orderService.createOrder(1L, "itemA", 10000);
+            orderService.createOrders(List.of(new OrderRequest(1L, "itemB", 20000), new OrderRequest(1L, "itemC", 30000)));
+
+            assertThat(orderRepository.count()).isEqualTo(3);
+            assertThat(orderRepository.commitCount()).isEqualTo(2);
+        }
+    }
+
+    private List<String> toStrings(OrderRepository orderRepository) {
+        List<String> orders = new ArrayList<>();
+        orderRepository.forEach(order -> orders.add(order.toString()));
+        return orders;
+    }
+}
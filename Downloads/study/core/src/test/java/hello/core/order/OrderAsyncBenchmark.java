@@ -0,0 +1,92 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 느린 회원 저장소(조회 1건당 LOOKUP_MILLIS 지연)에서 동시에 진행 중인 주문 수에 따른 처리 시간 비교
+ * 실행: java ... hello.core.order.OrderAsyncBenchmark
+ *
+ * blocking : 요청 스레드 풀(REQUEST_THREADS 개)에서 createOrder 를 호출, 스레드가 조회를 기다리는 동안 묶여있다
+ * async    : 호출한 스레드 하나가 createOrderAsync 로 전부 보내고 한꺼번에 기다린다 (OrderExecutors 전용 executor)
+ */
+public class OrderAsyncBenchmark {
+
+    private static final int LOOKUP_MILLIS = 2;
+    private static final int REQUEST_THREADS = 200;
+    private static final int ASYNC_PLATFORM_THREADS = 1_000;
+
+    public static void main(String[] args) throws Exception {
+        MemberRepository memberRepository = new ConcurrentMemberRepository() {
+            @Override
+            public Member findById(Long memberId) {
+                sleep();
+                return super.findById(memberId);
+            }
+        };
+        for (long id = 1; id <= 100; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        ExecutorService asyncExecutor = OrderExecutors.create(ASYNC_PLATFORM_THREADS);
+        OrderService orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy(), null, asyncExecutor);
+        System.out.printf("lookup=%dms, request threads=%d, async executor=%s%n", LOOKUP_MILLIS, REQUEST_THREADS,
+                OrderExecutors.virtualThreadsSupported() ? "virtual threads" : ASYNC_PLATFORM_THREADS + " platform threads");
+
+        for (int round = 0; round < 2; round++) { // 첫 바퀴는 워밍업
+            for (int inFlight : new int[]{100, 1_000, 10_000}) {
+                long blocking = blocking(orderService, requestThreads, inFlight);
+                long async = async(orderService, inFlight);
+                if (round > 0) {
+                    System.out.printf("in-flight=%,6d  blocking %,7.1fms (%,9.0f orders/sec)  async %,7.1fms (%,9.0f orders/sec)%n",
+                            inFlight, blocking / 1e6, inFlight / (blocking / 1e9), async / 1e6, inFlight / (async / 1e9));
+                }
+            }
+        }
+        requestThreads.shutdown();
+        asyncExecutor.shutdown();
+    }
+
+    private static long blocking(OrderService orderService, ExecutorService requestThreads, int inFlight) throws Exception {
+        long start = System.nanoTime();
+        List<Future<Order>> futures = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            long memberId = i % 100 + 1;
+            futures.add(requestThreads.submit(() -> orderService.createOrder(memberId, "itemA", 10000)));
+        }
+        for (Future<Order> future : futures) {
+            future.get();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static long async(OrderService orderService, int inFlight) {
+        long start = System.nanoTime();
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[inFlight];
+        for (int i = 0; i < inFlight; i++) {
+            futures[i] = orderService.createOrderAsync((long) (i % 100 + 1), "itemA", 10000);
+        }
+        CompletableFuture.allOf(futures).join();
+        return System.nanoTime() - start;
+    }
+
+    private static void sleep() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(LOOKUP_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.CachingMemberRepository;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 배치 처리 비교 (JMH) : createOrder 반복 vs createOrders
+ * 실행: main() 실행, 결과는 배치 하나 처리 시간 (주문당 시간 = 결과 / batchSize)
+ *
+ * 체크아웃 배치처럼 수백 ~ 수천 줄이 소수의 회원(MEMBER_COUNT 명)에게 몰려있는 상황을 흉내낸다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderBatchBenchmark {
+
+    private static final int MEMBER_COUNT = 8;
+
+    @Param({"100", "1000", "10000"})
+    public int batchSize;
+
+    // caching : 캐시 저장소처럼 조회마다 락 / 통계 갱신 비용이 있는 경우
+    @Param({"concurrent", "caching"})
+    public String repositoryType;
+
+    private OrderService orderService;
+    private List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        MemberRepository memberRepository = "caching".equals(repositoryType)
+                ? new CachingMemberRepository(new ConcurrentMemberRepository(), 1024 * 1024)
+                : new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 2 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+
+        requests = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            requests.add(new OrderRequest((long) (i % MEMBER_COUNT) + 1, "item" + i, 1000 + i));
+        }
+    }
+
+    // 호출하는 쪽에서 주문 목록을 모으는 것까지 포함해야 createOrders 와 같은 조건이 된다
+    @Benchmark
+    public List<Order> createOrderLoop() {
+        List<Order> orders = new ArrayList<>(requests.size());
+        for (OrderRequest request : requests) {
+            orders.add(orderService.createOrder(request.getMemberId(), request.getItemName(), request.getItemPrice()));
+        }
+        return orders;
+    }
+
+    @Benchmark
+    public List<Order> createOrders() {
+        return orderService.createOrders(requests);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderBatchBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,91 @@
+package hello.core.order;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+/**
+ * 주문 저널 처리량 / 재생 시간 측정
+ * 실행: java ... hello.core.order.OrderJournalBenchmark [주문 수, 기본 2,000,000] [저널 디렉토리, 기본 임시 디렉토리]
+ *
+ * 동시 저장 스레드 수를 늘려가며 초당 주문 수와 기록(write + force) 횟수를 출력하고,
+ * 다시 열어서 재생(replay)에 걸린 시간을 출력한다. 마지막으로 saveAll 배치 저장 처리량을 출력한다.
+ */
+public class OrderJournalBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int orderCount = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path baseDirectory = args.length > 1 ? Path.of(args[1]) : Files.createTempDirectory("order-journal");
+
+        for (int threads : new int[]{1, 8, 64, 256}) {
+            Path directory = baseDirectory.resolve("threads-" + threads);
+            long elapsed;
+            long commits;
+            try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+                long start = System.nanoTime();
+                run(orderRepository, threads, orderCount);
+                elapsed = System.nanoTime() - start;
+                commits = orderRepository.commitCount();
+            }
+            System.out.printf("threads=%3d  %,d orders in %.2fs -> %,.0f orders/sec, commits=%,d (%.1f orders/commit)%n",
+                    threads, orderCount, elapsed / 1e9, orderCount / (elapsed / 1e9), commits, (double) orderCount / commits);
+
+            long start = System.nanoTime();
+            try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+                long replay = System.nanoTime() - start;
+                System.out.printf("             replay %,d orders in %.0fms%n", orderRepository.count(), replay / 1e6);
+            }
+            delete(directory);
+        }
+
+        // createOrders 처럼 saveAll 로 1,000 건씩 저장하는 경우
+        Path directory = baseDirectory.resolve("batched");
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(directory)) {
+            long start = System.nanoTime();
+            List<Order> batch = new ArrayList<>(1_000);
+            for (int i = 0; i < orderCount; i++) {
+                batch.add(new Order((long) i % 1_000, "item" + (i & 1023), 1000 + i % 50_000, 0));
+                if (batch.size() == 1_000) {
+                    orderRepository.saveAll(batch);
+                    batch.clear();
+                }
+            }
+            orderRepository.saveAll(batch);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("saveAll(1,000) %,d orders in %.2fs -> %,.0f orders/sec, commits=%,d%n",
+                    orderCount, elapsed / 1e9, orderCount / (elapsed / 1e9), orderRepository.commitCount());
+        }
+        delete(directory);
+    }
+
+    private static void run(JournalOrderRepository orderRepository, int threads, int orderCount) throws Exception {
+        ExecutorService executorService = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        int perThread = orderCount / threads;
+        for (int t = 0; t < threads; t++) {
+            long memberId = t;
+            int count = t == threads - 1 ? orderCount - perThread * (threads - 1) : perThread;
+            futures.add(executorService.submit(() -> {
+                for (int i = 0; i < count; i++) {
+                    orderRepository.save(new Order(memberId, "item" + (i & 1023), 1000 + i % 50_000, i % 10 == 0 ? 1000 : 0));
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executorService.shutdown();
+    }
+
+    private static void delete(Path directory) throws Exception {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+}
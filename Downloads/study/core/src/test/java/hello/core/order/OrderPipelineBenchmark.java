@@ -0,0 +1,79 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 주문 파이프라인(OrderPipeline)에 일정한 속도로 주문을 계속 넣으면서 대기 전략별 지연시간 분포를 잰다
+ * 실행: java ... hello.core.order.OrderPipelineBenchmark [초당 주문 수] [측정 초] [journal]
+ *
+ * 생산자는 목표 속도에 맞춰 publish 하고(밀리면 따라잡는다), 워밍업 뒤 측정 구간의 publish -> 기록 완료 지연시간을 출력한다.
+ * journal 을 주면 JournalOrderRepository(fsync)에 기록한다, 없으면 기록 단계는 지연시간만 잰다.
+ * busySpin 은 단계 수(3) + 생산자보다 코어가 적으면 서로 CPU를 뺏으므로 의미 있는 숫자가 나오지 않는다.
+ */
+public class OrderPipelineBenchmark {
+
+    private static final int BUFFER_SIZE = 4096;
+    private static final int MEMBER_COUNT = 10_000;
+    private static final int WARMUP_SECONDS = 2;
+
+    public static void main(String[] args) throws Exception {
+        int ratePerSecond = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        boolean journal = args.length > 2 && args[2].equals("journal");
+
+        MemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        String[] items = {"itemA", "itemB", "itemC", "itemD"};
+
+        System.out.printf("rate=%,d/s seconds=%d journal=%s cpus=%d%n",
+                ratePerSecond, seconds, journal, Runtime.getRuntime().availableProcessors());
+        String[] names = {"yielding", "sleeping", "blocking", "busySpin"};
+        WaitStrategy[] strategies = {WaitStrategy.yielding(), WaitStrategy.sleeping(),
+                WaitStrategy.blocking(), WaitStrategy.busySpin()};
+        for (int s = 0; s < strategies.length; s++) {
+            Path dir = Files.createTempDirectory("order-pipeline");
+            JournalOrderRepository orderRepository = journal ? new JournalOrderRepository(dir) : null;
+            try (OrderPipeline pipeline = new OrderPipeline(memberRepository, new RateDiscountPolicy(),
+                    orderRepository, BUFFER_SIZE, strategies[s])) {
+                run(pipeline, items, ratePerSecond, WARMUP_SECONDS);
+                pipeline.drain();
+                pipeline.latency().reset();
+
+                long start = System.nanoTime();
+                long published = run(pipeline, items, ratePerSecond, seconds);
+                pipeline.drain();
+                double elapsed = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%-9s %,10.0f orders/s  %s%n",
+                        names[s], published / elapsed, pipeline.latency().summary());
+            } finally {
+                if (orderRepository != null) {
+                    orderRepository.close();
+                }
+            }
+        }
+    }
+
+    private static long run(OrderPipeline pipeline, String[] items, int ratePerSecond, int seconds) {
+        long intervalNanos = 1_000_000_000L / ratePerSecond;
+        long total = (long) ratePerSecond * seconds;
+        long next = System.nanoTime();
+        for (long i = 0; i < total; i++) {
+            while (System.nanoTime() < next) {
+                LockSupport.parkNanos(1); // 목표 속도보다 빠르면 쉰다
+            }
+            pipeline.publish(i % MEMBER_COUNT + 1, items[(int) (i & 3)], 10_000);
+            next += intervalNanos;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,191 @@
+package hello.core.order;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.*;
+
+class OrderPipelineTest {
+
+    @Test
+    @DisplayName("모든 대기 전략에서 주문이 publish 순서대로 할인 계산되어 기록된다")
+    void allWaitStrategies() throws Exception {
+        MemberRepository memberRepository = memberRepository(10);
+        OrderService orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+        WaitStrategy[] strategies = {WaitStrategy.busySpin(), WaitStrategy.yielding(),
+                WaitStrategy.sleeping(), WaitStrategy.blocking()};
+
+        for (WaitStrategy strategy : strategies) {
+            ListOrderRepository orderRepository = new ListOrderRepository();
+            // 링(8칸)보다 훨씬 많이 넣어서 슬롯 재사용과 backpressure 까지 확인
+            try (OrderPipeline pipeline = new OrderPipeline(memberRepository, new RateDiscountPolicy(),
+                    orderRepository, 8, strategy)) {
+                for (int i = 0; i < 1_000; i++) {
+                    pipeline.publish(i % 10 + 1, "item" + i, 1000 + i);
+                }
+                pipeline.drain();
+
+                assertThat(orderRepository.orders).hasSize(1_000);
+                for (int i = 0; i < 1_000; i++) {
+                    Order expected = orderService.createOrder((long) (i % 10 + 1), "item" + i, 1000 + i);
+                    assertThat(orderRepository.orders.get(i).toString()).isEqualTo(expected.toString());
+                }
+                assertThat(pipeline.latency().count()).isEqualTo(1_000);
+                assertThat(pipeline.failureCount()).isZero();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("저널 저장소에 묶음(saveAll)으로 기록된다")
+    void journal(@TempDir Path dir) throws Exception {
+        try (JournalOrderRepository orderRepository = new JournalOrderRepository(dir)) {
+            try (OrderPipeline pipeline = new OrderPipeline(memberRepository(10), new RateDiscountPolicy(),
+                    orderRepository, 1024, WaitStrategy.sleeping())) {
+                for (int i = 0; i < 5_000; i++) {
+                    pipeline.publish(i % 10 + 1, "item" + i % 7, 1000);
+                }
+            }
+            assertThat(orderRepository.count()).isEqualTo(5_000);
+            // 주문마다가 아니라 단계가 한 번에 처리한 묶음마다 commit
+            assertThat(orderRepository.commitCount()).isLessThan(5_000);
+        }
+    }
+
+    @Test
+    @DisplayName("없는 회원 주문은 실패로 세고 건너뛴다, 뒤의 주문은 계속 처리된다")
+    void failedEvent() throws Exception {
+        ListOrderRepository orderRepository = new ListOrderRepository();
+        try (OrderPipeline pipeline = new OrderPipeline(memberRepository(2), new RateDiscountPolicy(),
+                orderRepository, 4, WaitStrategy.blocking())) {
+            for (int i = 0; i < 10; i++) {
+                pipeline.publish(i % 3 + 1, "item" + i, 1000); // 3번 회원은 없다
+            }
+            pipeline.drain();
+
+            assertThat(pipeline.failureCount()).isEqualTo(3);
+            assertThat(orderRepository.orders).extracting(Order::getItemName)
+                    .containsExactly("item0", "item1", "item3", "item4", "item6", "item7", "item9");
+        }
+    }
+
+    @Test
+    @DisplayName("publish 는 처음 호출한 스레드만 할 수 있다")
+    void singleWriter() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try (OrderPipeline pipeline = new OrderPipeline(memberRepository(1), new RateDiscountPolicy(),
+                null, 4, WaitStrategy.sleeping())) {
+            pipeline.publish(1, "item", 1000);
+
+            assertThatThrownBy(() -> executor.submit(() -> pipeline.publish(1, "item", 1000)).get())
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("단계 스레드가 Error 로 죽으면 publish / drain / close 가 기다리지 않고 원인을 던진다")
+    void stageDies() {
+        DiscountPolicy broken = (member, price) -> {
+            if (price == 1013) {
+                throw new OutOfMemoryError("test");
+            }
+            return 0;
+        };
+        OrderPipeline pipeline = new OrderPipeline(memberRepository(10), broken,
+                new ListOrderRepository(), 4, WaitStrategy.blocking());
+
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 1_000; i++) {
+                pipeline.publish(i % 10 + 1, "item" + i, 1000 + i); // 링(4칸)이 차면 backpressure 에서 멈춘 것을 알아챈다
+            }
+        }).isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(pipeline::drain).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(pipeline::close).hasCauseInstanceOf(OutOfMemoryError.class);
+        pipeline.close(); // 두 번째는 바로 돌아온다
+    }
+
+    @Test
+    @Timeout(10)
+    @DisplayName("단계 스레드가 죽은 뒤에는 링에 자리가 있어도 publish 가 원인을 던진다")
+    void publishAfterStageDies() {
+        DiscountPolicy broken = (member, price) -> {
+            throw new OutOfMemoryError("test");
+        };
+        ListOrderRepository orderRepository = new ListOrderRepository();
+        OrderPipeline pipeline = new OrderPipeline(memberRepository(10), broken, orderRepository, 1024, WaitStrategy.blocking());
+
+        pipeline.publish(1L, "itemA", 10000);
+        assertThatThrownBy(pipeline::drain).hasCauseInstanceOf(OutOfMemoryError.class); // 단계가 죽을 때까지 기다린다
+
+        assertThatThrownBy(() -> pipeline.publish(2L, "itemB", 20000))
+                .isInstanceOf(IllegalStateException.class).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThatThrownBy(pipeline::close).hasCauseInstanceOf(OutOfMemoryError.class);
+        assertThat(orderRepository.orders).isEmpty();
+    }
+
+    @Test
+    @DisplayName("close 이후 publish 는 주문을 버리지 않고 예외를 던진다")
+    void publishAfterClose() {
+        ListOrderRepository orderRepository = new ListOrderRepository();
+        OrderPipeline pipeline = new OrderPipeline(memberRepository(10), new RateDiscountPolicy(),
+                orderRepository, 1024, WaitStrategy.blocking());
+        pipeline.publish(1L, "itemA", 10000);
+        pipeline.close();
+
+        assertThatThrownBy(() -> pipeline.publish(2L, "itemB", 20000)).isInstanceOf(IllegalStateException.class);
+        assertThat(orderRepository.orders).hasSize(1);
+    }
+
+    @Test
+    void bufferSizeMustBePowerOfTwo() {
+        assertThatThrownBy(() -> new OrderPipeline(memberRepository(1), new RateDiscountPolicy(),
+                null, 100, WaitStrategy.sleeping()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private MemberRepository memberRepository(int memberCount) {
+        MemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= memberCount; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 3 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        return memberRepository;
+    }
+
+    static class ListOrderRepository implements OrderRepository {
+
+        final List<Order> orders = new ArrayList<>();
+
+        @Override
+        public synchronized void save(Order order) {
+            orders.add(order);
+        }
+
+        @Override
+        public synchronized long count() {
+            return orders.size();
+        }
+
+        @Override
+        public synchronized void forEach(Consumer<Order> action) {
+            orders.forEach(action);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import hello.core.member.PrimitiveMemberRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 주문 한 건 가격 계산의 할당량 비교 (JMH + GC 프로파일러)
+ * 실행: main() 실행, gc.alloc.rate.norm 이 호출 한 번당 할당 바이트
+ *
+ * createOrder      : Long 박싱 + Order 생성
+ * price            : price(long, int), 할인 금액만 int 로
+ * priceIntoSink    : price(long, String, int, ReusableOrder), 같은 ReusableOrder 를 덮어쓴다
+ * *AndLog          : 로그 문자열 만들기까지 (Order.toString vs 재사용 StringBuilder 에 appendTo)
+ *
+ * 회원 id는 Long 캐시(-128 ~ 127) 밖의 값을 쓴다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OrderPricingBenchmark {
+
+    private static final int MEMBER_COUNT = 1024;
+    private static final long FIRST_ID = 1_000;
+
+    // primitive : 조회에 박싱이 없고 저장된 Member 를 그대로 돌려주는 저장소
+    @Param({"primitive", "concurrent"})
+    public String repositoryType;
+
+    private OrderService orderService;
+    private final ReusableOrder reusableOrder = new ReusableOrder();
+    private final StringBuilder log = new StringBuilder(128);
+    private int next;
+
+    @Setup
+    public void setUp() {
+        MemberRepository memberRepository = "primitive".equals(repositoryType)
+                ? new PrimitiveMemberRepository(MEMBER_COUNT)
+                : new ConcurrentMemberRepository(MEMBER_COUNT);
+        for (int i = 0; i < MEMBER_COUNT; i++) {
+            long id = FIRST_ID + i;
+            memberRepository.save(new Member(id, "member" + id, i % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        orderService = new OrderServiceImpl(memberRepository, new RateDiscountPolicy());
+    }
+
+    private long nextMemberId() {
+        next = (next + 1) & (MEMBER_COUNT - 1);
+        return FIRST_ID + next;
+    }
+
+    @Benchmark
+    public Order createOrder() {
+        return orderService.createOrder(nextMemberId(), "itemA", 10_000);
+    }
+
+    @Benchmark
+    public int price() {
+        return orderService.price(nextMemberId(), 10_000);
+    }
+
+    @Benchmark
+    public int priceIntoSink() {
+        orderService.price(nextMemberId(), "itemA", 10_000, reusableOrder);
+        return reusableOrder.calculatePrice();
+    }
+
+    @Benchmark
+    public int createOrderAndLog() {
+        return orderService.createOrder(nextMemberId(), "itemA", 10_000).toString().length();
+    }
+
+    @Benchmark
+    public int priceIntoSinkAndLog() {
+        orderService.price(nextMemberId(), "itemA", 10_000, reusableOrder);
+        log.setLength(0);
+        return reusableOrder.appendTo(log).length();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(OrderPricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -4,6 +4,7 @@ import hello.core.discount.FixDiscountPolicy;
 import hello.core.member.Grade;
 import hello.core.member.Member;
 import hello.core.member.MemoryMemberRepository;
+import hello.core.member.PrimitiveMemberRepository;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.*;
@@ -21,4 +22,32 @@ class OrderServiceImplTest {
         Order order = orderService.createOrder(1L, "itemA", 10000);
         assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
-}
\ No newline at end of file
+
+    @Test
+    void price() {
+        PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+        memberRepository.save(new Member(1L, "name", Grade.VIP));
+        memberRepository.save(new Member(2L, "name", Grade.BASIC));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+
+        assertThat(orderService.price(1L, 10000)).isEqualTo(1000);
+        assertThat(orderService.price(2L, 10000)).isEqualTo(0);
+    }
+
+    @Test
+    void priceIntoReusableOrder() {
+        PrimitiveMemberRepository memberRepository = new PrimitiveMemberRepository();
+        memberRepository.save(new Member(1L, "name", Grade.VIP));
+        OrderServiceImpl orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+        ReusableOrder order = new ReusableOrder();
+
+        orderService.price(1L, "itemA", 10000, order);
+        orderService.price(1L, "itemB", 20000, order); // 같은 객체를 덮어쓴다
+
+        assertThat(order.getItemName()).isEqualTo("itemB");
+        assertThat(order.calculatePrice()).isEqualTo(19000);
+        Order expected = orderService.createOrder(1L, "itemB", 20000);
+        assertThat(order.appendTo(new StringBuilder()).toString()).isEqualTo(expected.toString());
+        assertThat(order.toOrder().toString()).isEqualTo(expected.toString());
+    }
+}
@@ -1,14 +1,27 @@
 package hello.core.order;
 
 import hello.core.AppConfig;
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.FixDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
 import hello.core.member.Grade;
 import hello.core.member.Member;
 import hello.core.member.MemberService;
 import hello.core.member.MemberServiceImpl;
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
 public class OrderServiceTest {
     /**
      * 단위 테스트를 잘 만드는게 중요하다
@@ -34,4 +47,148 @@ public class OrderServiceTest {
         Order order = orderService.createOrder(memberId, "itemA", 10000);
         Assertions.assertThat(order.getDiscountPrice()).isEqualTo(1000);
     }
+
+    @Test
+    void createOrders() {
+        memberService.join(new Member(1L, "memberA", Grade.VIP));
+        memberService.join(new Member(2L, "memberB", Grade.BASIC));
+
+        List<Order> orders = orderService.createOrders(List.of(
+                new OrderRequest(1L, "itemA", 10000),
+                new OrderRequest(2L, "itemB", 20000),
+                new OrderRequest(1L, "itemC", 30000)));
+
+        Assertions.assertThat(orders).extracting(Order::getItemName).containsExactly("itemA", "itemB", "itemC");
+        Assertions.assertThat(orders).extracting(Order::getDiscountPrice).containsExactly(1000, 0, 3000);
+    }
+
+    @Test
+    void createOrdersLooksUpEachMemberOnce() {
+        List<long[]> lookups = new ArrayList<>();
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository() {
+            @Override
+            public List<Member> findAllById(long[] memberIds) {
+                lookups.add(memberIds);
+                return super.findAllById(memberIds);
+            }
+        };
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        memberRepository.save(new Member(2L, "memberB", Grade.BASIC));
+        OrderService orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy());
+
+        List<OrderRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            requests.add(new OrderRequest(i % 3 == 0 ? 2L : 1L, "item" + i, 10000));
+        }
+        List<Order> orders = orderService.createOrders(requests);
+
+        Assertions.assertThat(lookups).hasSize(1);
+        Assertions.assertThat(lookups.get(0)).containsExactly(2L, 1L);
+        Assertions.assertThat(orders).hasSize(300);
+        Assertions.assertThat(orders.get(0).getDiscountPrice()).isEqualTo(0);
+        Assertions.assertThat(orders.get(1).getDiscountPrice()).isEqualTo(1000);
+    }
+
+    @Test
+    void createOrderAsync() throws Exception {
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ConcurrentMemberRepository slowRepository = new ConcurrentMemberRepository() {
+            @Override
+            public Member findById(Long memberId) {
+                lookupStarted.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.findById(memberId);
+            }
+        };
+        slowRepository.save(new Member(1L, "memberA", Grade.VIP));
+        ExecutorService executor = OrderExecutors.create(2);
+        try {
+            OrderService orderService = new OrderServiceImpl(slowRepository, new FixDiscountPolicy(), null, executor);
+
+            CompletableFuture<Order> future = orderService.createOrderAsync(1L, "itemA", 10000);
+            Assertions.assertThat(lookupStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Assertions.assertThat(future).isNotDone(); // 조회가 끝나지 않아도 호출한 스레드는 이미 돌아와 있다
+
+            release.countDown();
+            Assertions.assertThat(future.get(5, TimeUnit.SECONDS).getDiscountPrice()).isEqualTo(1000);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("할인 계산과 기록도 호출한 스레드가 아니라 executor 스레드에서 실행된다")
+    void createOrderAsyncRunsOnExecutor() throws Exception {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        DiscountPolicy discountPolicy = (member, price) -> {
+            threads.add(Thread.currentThread().getName());
+            return 1000;
+        };
+        OrderRepository orderRepository = new OrderRepository() {
+            @Override
+            public void save(Order order) {
+                threads.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public long count() {
+                return 0;
+            }
+
+            @Override
+            public void forEach(Consumer<Order> action) {
+            }
+        };
+        ExecutorService executor = OrderExecutors.create(1);
+        try {
+            OrderService orderService = new OrderServiceImpl(memberRepository, discountPolicy, orderRepository, executor);
+
+            // 조회가 먼저 끝나는 경우가 섞이도록 여러 번
+            for (int i = 0; i < 100; i++) {
+                orderService.createOrderAsync(1L, "itemA", 10000).get(5, TimeUnit.SECONDS);
+            }
+
+            Assertions.assertThat(threads).hasSize(200).allMatch(name -> name.startsWith("order-async-"));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void createOrderWithIdempotencyKey() {
+        List<Order> saved = new ArrayList<>();
+        OrderRepository orderRepository = new OrderRepository() {
+            @Override
+            public void save(Order order) {
+                saved.add(order);
+            }
+
+            @Override
+            public long count() {
+                return saved.size();
+            }
+
+            @Override
+            public void forEach(Consumer<Order> action) {
+                saved.forEach(action);
+            }
+        };
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository();
+        memberRepository.save(new Member(1L, "memberA", Grade.VIP));
+        OrderService orderService = new OrderServiceImpl(memberRepository, new FixDiscountPolicy(), orderRepository);
+
+        Order first = orderService.createOrder("req-1", 1L, "itemA", 10000);
+        Order retry = orderService.createOrder("req-1", 1L, "itemA", 10000);
+        orderService.createOrder("req-2", 1L, "itemA", 10000);
+
+        Assertions.assertThat(retry.toString()).isEqualTo(first.toString());
+        Assertions.assertThat(saved).hasSize(2); // 재시도는 다시 기록되지 않는다
+    }
 }
@@ -0,0 +1,81 @@
+package hello.core.order;
+
+import hello.core.discount.DiscountPolicy;
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import hello.core.member.MemberRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ParallelOrderPricerTest {
+
+    @Test
+    @DisplayName("여러 스레드로 나눠 계산해도 순차 계산과 결과, 순서가 같다")
+    void sameAsSequential() {
+        MemberRepository memberRepository = memberRepository(100);
+        Set<String> threadNames = ConcurrentHashMap.newKeySet();
+        DiscountPolicy discountPolicy = new RateDiscountPolicy() {
+            @Override
+            public int discount(Member member, int price) {
+                threadNames.add(Thread.currentThread().getName());
+                return super.discount(member, price);
+            }
+        };
+        OrderService orderService = new OrderServiceImpl(memberRepository, discountPolicy);
+        List<OrderRequest> requests = requests(10_000, 100);
+
+        List<Order> expected = new ArrayList<>();
+        for (OrderRequest request : requests) {
+            expected.add(orderService.createOrder(request.getMemberId(), request.getItemName(), request.getItemPrice()));
+        }
+        threadNames.clear();
+
+        try (ParallelOrderPricer pricer = new ParallelOrderPricer(orderService, 4, 100)) {
+            List<Order> orders = pricer.priceAll(requests);
+
+            assertThat(orders).hasSize(expected.size());
+            for (int i = 0; i < orders.size(); i++) {
+                assertThat(orders.get(i).toString()).isEqualTo(expected.get(i).toString());
+            }
+        }
+        // 공용 풀(ForkJoinPool.commonPool-worker-*)은 쓰지 않는다
+        assertThat(threadNames).isNotEmpty().allMatch(name -> name.startsWith("order-pricer-"));
+    }
+
+    @Test
+    @DisplayName("threshold 이하의 작은 배치는 호출한 스레드에서 바로 계산한다")
+    void smallBatch() {
+        OrderService orderService = new OrderServiceImpl(memberRepository(2), new RateDiscountPolicy());
+        try (ParallelOrderPricer pricer = new ParallelOrderPricer(orderService, 2, 100)) {
+            List<Order> orders = pricer.priceAll(requests(10, 2));
+
+            assertThat(orders).extracting(Order::getItemName).startsWith("item0", "item1", "item2");
+            assertThat(pricer.getParallelism()).isEqualTo(2);
+        }
+    }
+
+    private MemberRepository memberRepository(int memberCount) {
+        MemberRepository memberRepository = new ConcurrentMemberRepository();
+        for (long id = 1; id <= memberCount; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 3 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        return memberRepository;
+    }
+
+    private List<OrderRequest> requests(int count, int memberCount) {
+        List<OrderRequest> requests = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            requests.add(new OrderRequest((long) (i % memberCount) + 1, "item" + i, 1000 + i));
+        }
+        return requests;
+    }
+}
@@ -0,0 +1,74 @@
+package hello.core.order;
+
+import hello.core.discount.RateDiscountPolicy;
+import hello.core.member.ConcurrentMemberRepository;
+import hello.core.member.Grade;
+import hello.core.member.Member;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 병렬 가격 계산 확장성 측정 (JMH)
+ * 실행: main() 실행 -> parallelism 을 1, 2, 4 ... 코어 수까지 늘려가며 ORDER_COUNT 건 계산 시간을 잰다
+ * 코어 수가 늘어날수록 시간이 거의 반씩 줄어야 정상이다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelPricingBenchmark {
+
+    private static final int ORDER_COUNT = 1_000_000;
+    private static final int MEMBER_COUNT = 10_000;
+
+    @Param({"1"})
+    public int parallelism;
+
+    private ParallelOrderPricer pricer;
+    private List<OrderRequest> requests;
+
+    @Setup
+    public void setUp() {
+        ConcurrentMemberRepository memberRepository = new ConcurrentMemberRepository(MEMBER_COUNT);
+        for (long id = 1; id <= MEMBER_COUNT; id++) {
+            memberRepository.save(new Member(id, "member" + id, id % 10 == 0 ? Grade.VIP : Grade.BASIC));
+        }
+        pricer = new ParallelOrderPricer(new OrderServiceImpl(memberRepository, new RateDiscountPolicy()), parallelism, 4_096);
+
+        requests = new ArrayList<>(ORDER_COUNT);
+        for (int i = 0; i < ORDER_COUNT; i++) {
+            requests.add(new OrderRequest((long) (i % MEMBER_COUNT) + 1, "item" + (i % 1_000), 1000 + i % 50_000));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        pricer.close();
+    }
+
+    @Benchmark
+    public List<Order> priceAll() {
+        return pricer.priceAll(requests);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        List<String> parallelisms = new ArrayList<>();
+        for (int p = 1; p <= Runtime.getRuntime().availableProcessors(); p *= 2) {
+            parallelisms.add(String.valueOf(p));
+        }
+        Options options = new OptionsBuilder()
+                .include(ParallelPricingBenchmark.class.getSimpleName())
+                .param("parallelism", parallelisms.toArray(new String[0]))
+                .build();
+        new Runner(options).run();
+    }
+}